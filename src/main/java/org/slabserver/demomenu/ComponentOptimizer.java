@@ -0,0 +1,116 @@
+package org.slabserver.demomenu;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rewrites Component trees into the smallest equivalent tree before they are
+ * sent to the client. Pure Adventure — no server required.
+ *
+ * Helpers like DemoMenuSystem.line() build trees such as
+ *
+ *   ""  ─┬─ "Health:   " (gray)
+ *        ├─ ""  ─── "17.5" (white) ─── " / 20" (white)
+ *        └─ "  │  " (dark gray)
+ *
+ * which serialize far larger than they render. Three passes fix that:
+ *
+ *   1. Redundant styling — a colour or decoration that equals what the node
+ *      already inherits from its parent is dropped.
+ *   2. Empty wrappers    — a text node with no content and no style is
+ *      replaced by its children in the parent's child list.
+ *   3. Adjacent text     — neighbouring childless text nodes with identical
+ *      style are merged into one.
+ *
+ * The rendered result is identical; only the tree shape changes.
+ */
+public final class ComponentOptimizer {
+
+    private static final GsonComponentSerializer GSON = GsonComponentSerializer.gson();
+
+    private ComponentOptimizer() {}
+
+    /** Optimized copy of the component. Null passes through. */
+    public static Component optimize(Component component) {
+        if (component == null) return null;
+        Component out = optimize(component, null, Style.empty());
+
+        // A bare wrapper around a single child is just that child
+        if (isEmptyWrapper(out) && out.children().size() == 1) return out.children().get(0);
+        return out;
+    }
+
+    /** UTF-8 size of the component's JSON form — the proxy we budget against. */
+    public static int serializedSize(Component component) {
+        return component == null ? 0 : GSON.serialize(component).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    // ─── Passes ───────────────────────────────────────────────────────────
+
+    /**
+     * @param inheritedColor colour the node renders with if it sets none
+     * @param inherited      inherited decoration states (only decorations are read)
+     */
+    private static Component optimize(Component node, TextColor inheritedColor, Style inherited) {
+
+        // ── 1. Drop styling the node already inherits ──────────────────────
+        Style style = node.style();
+        if (style.color() != null && style.color().equals(inheritedColor)) style = style.color(null);
+        for (TextDecoration d : TextDecoration.values()) {
+            TextDecoration.State own = style.decoration(d);
+            if (own != TextDecoration.State.NOT_SET && own == inherited.decoration(d)) {
+                style = style.decoration(d, TextDecoration.State.NOT_SET);
+            }
+        }
+        if (!style.equals(node.style())) node = node.style(style);
+
+        if (node.children().isEmpty()) return node;
+
+        // What the children inherit from this node
+        TextColor childColor = style.color() != null ? style.color() : inheritedColor;
+        Style childInherited = inherited;
+        for (TextDecoration d : TextDecoration.values()) {
+            TextDecoration.State own = style.decoration(d);
+            if (own != TextDecoration.State.NOT_SET) childInherited = childInherited.decoration(d, own);
+        }
+
+        // ── 2. Optimize children, splicing empty wrappers into this list ───
+        List<Component> flat = new ArrayList<>(node.children().size());
+        for (Component child : node.children()) {
+            Component c = optimize(child, childColor, childInherited);
+            if (isEmptyWrapper(c)) flat.addAll(c.children());
+            else flat.add(c);
+        }
+
+        // ── 3. Merge adjacent same-style text leaves ───────────────────────
+        List<Component> merged = new ArrayList<>(flat.size());
+        for (Component c : flat) {
+            int last = merged.size() - 1;
+            if (last >= 0 && isTextLeaf(c) && isTextLeaf(merged.get(last))
+                    && c.style().equals(merged.get(last).style())) {
+                TextComponent prev = (TextComponent) merged.get(last);
+                merged.set(last, prev.content(prev.content() + ((TextComponent) c).content()));
+            } else {
+                merged.add(c);
+            }
+        }
+
+        return node.children(merged);
+    }
+
+    private static boolean isEmptyWrapper(Component c) {
+        return c instanceof TextComponent t && t.content().isEmpty() && t.style().isEmpty();
+    }
+
+    private static boolean isTextLeaf(Component c) {
+        return c instanceof TextComponent && c.children().isEmpty();
+    }
+}
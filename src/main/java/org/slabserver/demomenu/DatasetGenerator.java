@@ -0,0 +1,473 @@
+package org.slabserver.demomenu;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Seeded synthetic dataset for scale testing: any number of players with
+ * realistic-looking histories. No Paper API imports — pure Java.
+ *
+ * ─── Shape ──────────────────────────────────────────────────────────────────
+ *
+ *   history length  Pareto-tailed: most players have a handful of saves, a
+ *                   few regulars have hundreds (capped at MAX_HISTORY)
+ *   save times      sessions of autosaves ~5 minutes apart, separated by
+ *                   exponential gaps of about a day
+ *   servers/worlds  a Zipf-weighted home server; some sessions elsewhere,
+ *                   and occasional world changes mid-session
+ *
+ * ─── Determinism ────────────────────────────────────────────────────────────
+ *
+ * Player i draws only from a random seeded by mix(seed, i), and all times
+ * count back from the spec's fixed anchor, so the output depends on the
+ * Spec alone — not on the clock, the thread count, or how fork-join split
+ * the work.
+ *
+ * ─── Cache ──────────────────────────────────────────────────────────────────
+ *
+ * load() keeps one binary file per Spec in the cache directory and reads it
+ * back instead of regenerating, so benchmarks and load tests run against
+ * identical data. The file is split into independently decodable chunks of
+ * players, read in parallel. Generated snapshots carry no inventory blobs
+ * (hashes are null).
+ *
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+public final class DatasetGenerator {
+
+    static final int MAX_HISTORY = 500;
+
+    private static final int  FORMAT_VERSION = 1;
+    private static final int  MAGIC          = 0x53534447;   // "SSDG"
+    private static final int  LEAF_PLAYERS   = 2048;
+
+    private static final String[]   SERVERS        = { "survival", "skyblock", "creative", "minigames", "hub" };
+    private static final double[]   SERVER_WEIGHTS = zipf(SERVERS.length, 1.1);
+    private static final String[][] WORLDS = {
+        { "overworld", "the_nether", "the_end" },
+        { "skyblock_world", "skyblock_nether" },
+        { "plots" },
+        { "arena_1", "arena_2", "arena_3", "lobby" },
+        { "hub" }
+    };
+    private static final String[] MODES    = { "SURVIVAL", "SURVIVAL", "CREATIVE", "ADVENTURE", "ADVENTURE" };
+    private static final String[] VEHICLES = { "Horse", "Boat", "Minecart", "Llama", "Pig" };
+
+    private static final String[] SYLLABLES = {
+        "al", "be", "cor", "da", "el", "fi", "gor", "ha", "is", "ja", "ka", "lu",
+        "mo", "ne", "or", "pi", "qua", "ri", "sa", "to", "ul", "vi", "wyn", "xe", "yo", "zu"
+    };
+
+    private DatasetGenerator() {}
+
+    // ─── Spec & report ────────────────────────────────────────────────────
+
+    /**
+     * @param anchorEpochSecond "now" for the dataset; the newest possible save time
+     */
+    public record Spec(int players, long seed, long anchorEpochSecond) {
+
+        /** Fixed anchor so the same (players, seed) always means the same data. */
+        public static final long DEFAULT_ANCHOR = 1_767_225_600L;   // 2026-01-01T00:00:00Z
+
+        public Spec(int players, long seed) {
+            this(players, seed, DEFAULT_ANCHOR);
+        }
+
+        String fileName() {
+            return "dataset-" + players + "-" + Long.toHexString(seed) + "-" + anchorEpochSecond + "-v" + FORMAT_VERSION + ".bin";
+        }
+    }
+
+    public enum Source { GENERATED, CACHED }
+
+    /**
+     * @param nanos     time to generate, or to read the cache
+     * @param fileBytes size of the cache file, or 0 if none was written
+     */
+    public record Report(Source source, int players, long snapshots, long nanos, long fileBytes) {
+
+        public String format() {
+            double seconds = nanos / 1e9;
+            return String.format(Locale.ROOT, "%s %,d players / %,d snapshots in %.2fs (%,.0f snapshots/s)%s",
+                source == Source.GENERATED ? "generated" : "loaded cached",
+                players, snapshots, seconds, seconds == 0 ? 0 : snapshots / seconds,
+                fileBytes == 0 ? "" : String.format(Locale.ROOT, " · %,.1f MB on disk", fileBytes / 1e6));
+        }
+    }
+
+    public record Dataset(List<DemoData.DemoPlayer> players, Report report) {}
+
+    // ─── Entry points ─────────────────────────────────────────────────────
+
+    /** Generates in parallel on the common fork-join pool. No caching. */
+    public static Dataset generate(Spec spec) {
+        long start = System.nanoTime();
+        DemoData.DemoPlayer[] out = new DemoData.DemoPlayer[spec.players()];
+        ForkJoinPool.commonPool().invoke(new RangeTask(0, out.length, LEAF_PLAYERS, i -> out[i] = player(spec, i)));
+
+        List<DemoData.DemoPlayer> players = List.of(out);
+        return new Dataset(players, new Report(Source.GENERATED, out.length, countSnapshots(players),
+            System.nanoTime() - start, 0));
+    }
+
+    /**
+     * Reads the cached dataset for {@code spec} from {@code cacheDir}, or
+     * generates it and writes the cache. A stale or unreadable cache file is
+     * regenerated.
+     */
+    public static Dataset load(Spec spec, Path cacheDir) throws IOException {
+        Path file = cacheDir.resolve(spec.fileName());
+        if (Files.isRegularFile(file)) {
+            long start = System.nanoTime();
+            List<DemoData.DemoPlayer> players = read(file, spec);
+            if (players != null) {
+                return new Dataset(players, new Report(Source.CACHED, players.size(), countSnapshots(players),
+                    System.nanoTime() - start, Files.size(file)));
+            }
+        }
+
+        Dataset generated = generate(spec);
+        write(file, spec, generated.players());
+        Report r = generated.report();
+        return new Dataset(generated.players(),
+            new Report(r.source(), r.players(), r.snapshots(), r.nanos(), Files.size(file)));
+    }
+
+    /** {@code java … DatasetGenerator <players> [seed] [cacheDir]} — builds or loads a cache and prints the report. */
+    public static void main(String[] args) throws IOException {
+        int  players = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long seed    = args.length > 1 ? Long.parseLong(args[1])    : 42L;
+        Path dir     = Path.of(args.length > 2 ? args[2] : "datasets");
+        System.out.println(load(new Spec(players, seed), dir).report().format());
+    }
+
+    private static long countSnapshots(List<DemoData.DemoPlayer> players) {
+        long n = 0;
+        for (DemoData.DemoPlayer p : players) n += p.snapshots().size();
+        return n;
+    }
+
+    // ─── Generation ───────────────────────────────────────────────────────
+
+    /** Runs {@code body} for every index in [from, to), splitting down to {@code leaf}-sized ranges. */
+    private static final class RangeTask extends RecursiveAction {
+
+        private final int from, to, leaf;
+        private final IntConsumer body;
+
+        RangeTask(int from, int to, int leaf, IntConsumer body) {
+            this.from = from;
+            this.to   = to;
+            this.leaf = leaf;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leaf) {
+                for (int i = from; i < to; i++) body.accept(i);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, leaf, body), new RangeTask(mid, to, leaf, body));
+        }
+    }
+
+    static DemoData.DemoPlayer player(Spec spec, int index) {
+        SplittableRandom rnd = new SplittableRandom(mix(spec.seed() ^ (index * 0x9E3779B97F4A7C15L)));
+
+        UUID uuid = new UUID(
+            (rnd.nextLong() & ~0xF000L) | 0x4000L,                          // version 4
+            (rnd.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);   // IETF variant
+        String name = name(rnd, index);
+
+        // Pareto tail (alpha 1.2) over a minimum of one save
+        int length = (int) Math.min(MAX_HISTORY, Math.floor(1.0 / Math.pow(1.0 - rnd.nextDouble(), 1.0 / 1.2)));
+
+        int   home      = weighted(rnd, SERVER_WEIGHTS);
+        int   baseX     = (int) (rnd.nextGaussian() * 3000);
+        int   baseZ     = (int) (rnd.nextGaussian() * 3000);
+        int   xpNow     = (int) (rnd.nextExponential() * 15);
+
+        // Newest first: walk backwards from the last time this player was seen
+        long  t         = spec.anchorEpochSecond() - (long) (rnd.nextExponential() * 2 * 86_400);
+        int   server    = home;
+        int   world     = 0;
+        int   x         = baseX, z = baseZ;
+        int   sessionLeft = 0;
+
+        DemoData.DemoSnapshot[] snaps = new DemoData.DemoSnapshot[length];
+        for (int k = 0; k < length; k++) {
+            if (sessionLeft == 0) {
+                if (k > 0) t -= 1800 + (long) (rnd.nextExponential() * 86_400);
+                sessionLeft = 1 + (int) (rnd.nextExponential() * 6);
+                server = rnd.nextDouble() < 0.7 ? home : weighted(rnd, SERVER_WEIGHTS);
+                world  = rnd.nextDouble() < 0.8 ? 0 : rnd.nextInt(WORLDS[server].length);
+                x = baseX + (int) (rnd.nextGaussian() * 200);
+                z = baseZ + (int) (rnd.nextGaussian() * 200);
+            } else {
+                t -= 270 + rnd.nextInt(60);                               // autosave with jitter
+                if (rnd.nextDouble() < 0.05) world = rnd.nextInt(WORLDS[server].length);
+                x += (int) (rnd.nextGaussian() * 40);
+                z += (int) (rnd.nextGaussian() * 40);
+            }
+            sessionLeft--;
+
+            snaps[k] = new DemoData.DemoSnapshot(
+                1000 + length - 1 - k,
+                SERVERS[server],
+                WORLDS[server][world],
+                x, 40 + rnd.nextInt(80), z,
+                Math.max(0.5, 20.0 - Math.min(39, (int) (rnd.nextExponential() * 4)) / 2.0),
+                Math.max(0, 20 - (int) (rnd.nextExponential() * 3)),
+                Math.max(0, xpNow - k / 10),
+                rnd.nextInt(100),
+                MODES[server],
+                rnd.nextDouble() < 0.03 ? VEHICLES[rnd.nextInt(VEHICLES.length)] : "none",
+                5 + rnd.nextInt(32),
+                rnd.nextInt(28),
+                null, null,
+                t);
+        }
+        return new DemoData.DemoPlayer(name, uuid, List.of(snaps));
+    }
+
+    private static String name(SplittableRandom rnd, int index) {
+        StringBuilder sb = new StringBuilder(16);
+        int parts = 2 + rnd.nextInt(2);
+        for (int i = 0; i < parts; i++) sb.append(SYLLABLES[rnd.nextInt(SYLLABLES.length)]);
+        sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+        return sb.append(index % 1000).toString();
+    }
+
+    private static int weighted(SplittableRandom rnd, double[] cumulative) {
+        double u = rnd.nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) if (u < cumulative[i]) return i;
+        return cumulative.length - 1;
+    }
+
+    /** Cumulative Zipf weights over n ranks. */
+    private static double[] zipf(int n, double s) {
+        double[] c = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) total += 1.0 / Math.pow(i + 1, s);
+        double run = 0;
+        for (int i = 0; i < n; i++) c[i] = (run += 1.0 / Math.pow(i + 1, s) / total);
+        return c;
+    }
+
+    /** MurmurHash3 fmix64. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    // ─── Binary cache ─────────────────────────────────────────────────────
+    //
+    //   header     int magic, int version, int players, long seed, long anchor
+    //   strings    int count, count × (short length, UTF-8 bytes)
+    //              — servers, worlds, modes, vehicles; snapshots store indexes
+    //   directory  int chunks, chunks × int byteLength
+    //   chunks     CHUNK_PLAYERS players each, self-contained:
+    //     per player:    short nameLength, UTF-8 name, long msb, long lsb, int count
+    //     per snapshot:  int id, short server, short world, int x, int y, int z,
+    //                    byte healthHalves, byte food, int xpLevel, byte xpPercent,
+    //                    short gamemode, short vehicle, byte inventory, byte enderChest,
+    //                    long epochSecond
+    //
+    // Chunks are encoded and decoded in parallel; the directory gives every
+    // chunk's offset up front so each reader thread does its own positional
+    // FileChannel read.
+
+    static final int CHUNK_PLAYERS = 4096;
+
+    private static final int SNAPSHOT_BYTES = 41;
+
+    private static void write(Path file, Spec spec, List<DemoData.DemoPlayer> players) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+
+        List<String> table = new ArrayList<>();
+        Map<String, Integer> ids = new HashMap<>();
+        for (String[] worlds : WORLDS) for (String w : worlds) intern(w, table, ids);
+        for (String s : SERVERS)  intern(s, table, ids);
+        for (String s : MODES)    intern(s, table, ids);
+        for (String s : VEHICLES) intern(s, table, ids);
+        intern("none", table, ids);
+
+        int chunkCount = (players.size() + CHUNK_PLAYERS - 1) / CHUNK_PLAYERS;
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount];
+        ForkJoinPool.commonPool().invoke(new RangeTask(0, chunkCount, 1, c -> chunks[c] = encodeChunk(players, c, ids)));
+
+        byte[][] strings = new byte[table.size()][];
+        int headBytes = 4 + 4 + 4 + 8 + 8 + 4 + 4 + 4 * chunkCount;
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = table.get(i).getBytes(StandardCharsets.UTF_8);
+            headBytes += 2 + strings[i].length;
+        }
+
+        ByteBuffer head = ByteBuffer.allocate(headBytes)
+            .putInt(MAGIC).putInt(FORMAT_VERSION)
+            .putInt(spec.players()).putLong(spec.seed()).putLong(spec.anchorEpochSecond())
+            .putInt(strings.length);
+        for (byte[] b : strings) head.putShort((short) b.length).put(b);
+        head.putInt(chunkCount);
+        for (ByteBuffer chunk : chunks) head.putInt(chunk.remaining());
+        head.flip();
+
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".part");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                writeFully(ch, head);
+                for (ByteBuffer chunk : chunks) writeFully(ch, chunk);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static ByteBuffer encodeChunk(List<DemoData.DemoPlayer> players, int chunk, Map<String, Integer> ids) {
+        List<DemoData.DemoPlayer> slice = players.subList(chunk * CHUNK_PLAYERS,
+            Math.min(players.size(), (chunk + 1) * CHUNK_PLAYERS));
+
+        byte[][] names = new byte[slice.size()][];
+        int bytes = 0;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = slice.get(i).name().getBytes(StandardCharsets.UTF_8);
+            bytes += 2 + names[i].length + 8 + 8 + 4 + slice.get(i).snapshots().size() * SNAPSHOT_BYTES;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(bytes);
+        for (int i = 0; i < names.length; i++) {
+            DemoData.DemoPlayer p = slice.get(i);
+            out.putShort((short) names[i].length).put(names[i])
+               .putLong(p.uuid().getMostSignificantBits())
+               .putLong(p.uuid().getLeastSignificantBits())
+               .putInt(p.snapshots().size());
+            for (DemoData.DemoSnapshot s : p.snapshots()) {
+                out.putInt(s.id())
+                   .putShort(ids.get(s.serverName()).shortValue())
+                   .putShort(ids.get(s.worldName()).shortValue())
+                   .putInt(s.x()).putInt(s.y()).putInt(s.z())
+                   .put((byte) Math.round(s.health() * 2))
+                   .put((byte) s.food())
+                   .putInt(s.xpLevel())
+                   .put((byte) s.xpPercent())
+                   .putShort(ids.get(s.gamemode()).shortValue())
+                   .putShort(ids.get(s.vehicle()).shortValue())
+                   .put((byte) s.inventoryCount())
+                   .put((byte) s.enderChestCount())
+                   .putLong(s.epochSecond());
+            }
+        }
+        return out.flip();
+    }
+
+    private static void intern(String s, List<String> table, Map<String, Integer> ids) {
+        if (ids.putIfAbsent(s, table.size()) == null) table.add(s);
+    }
+
+    /** The cached players, or null if the file is for another spec, another format, or truncated. */
+    private static List<DemoData.DemoPlayer> read(Path file, Spec spec) {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer fixed = readAt(ch, 0, 4 + 4 + 4 + 8 + 8 + 4);
+            if (fixed.getInt() != MAGIC || fixed.getInt() != FORMAT_VERSION) return null;
+            if (fixed.getInt() != spec.players() || fixed.getLong() != spec.seed()
+                || fixed.getLong() != spec.anchorEpochSecond()) return null;
+
+            long pos = fixed.capacity();
+            String[] table = new String[fixed.getInt()];
+            for (int i = 0; i < table.length; i++) {
+                int len = Short.toUnsignedInt(readAt(ch, pos, 2).getShort());
+                table[i] = StandardCharsets.UTF_8.decode(readAt(ch, pos + 2, len)).toString();
+                pos += 2 + len;
+            }
+
+            int chunkCount = readAt(ch, pos, 4).getInt();
+            if (chunkCount != (spec.players() + CHUNK_PLAYERS - 1) / CHUNK_PLAYERS) return null;
+            ByteBuffer directory = readAt(ch, pos + 4, 4 * chunkCount);
+            pos += 4 + 4L * chunkCount;
+
+            long[] offsets = new long[chunkCount];
+            int[]  lengths = new int[chunkCount];
+            for (int c = 0; c < chunkCount; c++) {
+                offsets[c] = pos;
+                lengths[c] = directory.getInt();
+                pos += lengths[c];
+            }
+            if (pos != ch.size()) return null;
+
+            DemoData.DemoPlayer[] players = new DemoData.DemoPlayer[spec.players()];
+            ForkJoinPool.commonPool().invoke(new RangeTask(0, chunkCount, 1, c -> {
+                try {
+                    decodeChunk(readAt(ch, offsets[c], lengths[c]), players, c * CHUNK_PLAYERS, table);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            return List.of(players);
+        } catch (IOException | RuntimeException e) {
+            return null;   // regenerate
+        }
+    }
+
+    private static void decodeChunk(ByteBuffer in, DemoData.DemoPlayer[] out, int first, String[] table) {
+        int last = Math.min(out.length, first + CHUNK_PLAYERS);
+        for (int i = first; i < last; i++) {
+            byte[] name = new byte[Short.toUnsignedInt(in.getShort())];
+            in.get(name);
+            UUID uuid = new UUID(in.getLong(), in.getLong());
+            DemoData.DemoSnapshot[] snaps = new DemoData.DemoSnapshot[in.getInt()];
+            for (int k = 0; k < snaps.length; k++) {
+                snaps[k] = new DemoData.DemoSnapshot(
+                    in.getInt(),
+                    table[Short.toUnsignedInt(in.getShort())],
+                    table[Short.toUnsignedInt(in.getShort())],
+                    in.getInt(), in.getInt(), in.getInt(),
+                    Byte.toUnsignedInt(in.get()) / 2.0,
+                    Byte.toUnsignedInt(in.get()),
+                    in.getInt(),
+                    Byte.toUnsignedInt(in.get()),
+                    table[Short.toUnsignedInt(in.getShort())],
+                    table[Short.toUnsignedInt(in.getShort())],
+                    Byte.toUnsignedInt(in.get()),
+                    Byte.toUnsignedInt(in.get()),
+                    null, null,
+                    in.getLong());
+            }
+            out[i] = new DemoData.DemoPlayer(new String(name, StandardCharsets.UTF_8), uuid, List.of(snaps));
+        }
+    }
+
+    private static ByteBuffer readAt(FileChannel ch, long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, position + buf.position()) < 0) throw new EOFException();
+        }
+        return buf.flip();
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) ch.write(buf);
+    }
+}
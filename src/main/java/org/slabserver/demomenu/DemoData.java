@@ -1,5 +1,7 @@
 package org.slabserver.demomenu;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -37,6 +39,8 @@ public final class DemoData {
         String vehicle,
         int    inventoryCount,
         int    enderChestCount,
+        String inventoryHash,     // InventoryBlobStore manifest hash
+        String enderChestHash,    // InventoryBlobStore manifest hash
         long   epochSecond
     ) {
         private static final DateTimeFormatter FMT =
@@ -58,9 +62,34 @@ public final class DemoData {
         }
     }
 
-    // ── Generated dataset: 18 players, 4-8 snapshots each ─────────────────
+    // ── Item contents: content-addressed, shared by every snapshot ────────
+
+    public static final InventoryBlobStore BLOBS = InventoryBlobStore.inMemory();
 
-    public static final List<DemoPlayer> PLAYERS = generatePlayers();
+    // ── Generated dataset: 18 players, 4-8 snapshots each ─────────────────
+    //
+    // -Ddemomenu.syntheticPlayers=N swaps in a DatasetGenerator dataset of N
+    // players instead (seed: demomenu.syntheticSeed, cache directory:
+    // demomenu.datasetCache) for scale testing.
+
+    public static final List<DemoPlayer> PLAYERS = loadPlayers();
+
+    private static List<DemoPlayer> loadPlayers() {
+        Integer synthetic = Integer.getInteger("demomenu.syntheticPlayers");
+        if (synthetic == null) return generatePlayers();
+
+        System.Logger log = System.getLogger(DemoData.class.getName());
+        var spec = new DatasetGenerator.Spec(synthetic, Long.getLong("demomenu.syntheticSeed", 42L));
+        DatasetGenerator.Dataset dataset;
+        try {
+            dataset = DatasetGenerator.load(spec, Path.of(System.getProperty("demomenu.datasetCache", "datasets")));
+        } catch (IOException e) {
+            log.log(System.Logger.Level.WARNING, "Dataset cache unavailable, generating in memory", e);
+            dataset = DatasetGenerator.generate(spec);
+        }
+        log.log(System.Logger.Level.INFO, "Synthetic dataset: " + dataset.report().format());
+        return dataset.players();
+    }
 
     private static List<DemoPlayer> generatePlayers() {
         String[] names = {
@@ -99,6 +128,8 @@ public final class DemoData {
 
         for (int i = 0; i < count; i++) {
             double healthRaw = 20.0 - (i % 5) * 2.5;
+            int invUsed   = 18 + (pIdx + i) % 18;
+            int enderUsed = (pIdx + i) % 27;
 
             snaps.add(new DemoSnapshot(
                 1000 + pIdx * 10 + i,
@@ -113,11 +144,33 @@ public final class DemoData {
                 (pIdx * 7 + i * 19) % 100,               // xp %
                 modes[(pIdx + i) % modes.length],
                 vehicles[(pIdx + i) % vehicles.length],
-                18 + (pIdx + i) % 18,                    // inventory slots used
-                (pIdx + i) % 27,                          // ender chest slots used
+                invUsed,                                   // inventory slots used
+                enderUsed,                                 // ender chest slots used
+                BLOBS.putInventory(generateSlots(pIdx, i, 36, invUsed)),
+                BLOBS.putInventory(generateSlots(pIdx, 0, 27, enderUsed)),
                 now - (i * 3600L + pIdx * 600L)          // staggered save times
             ));
         }
         return Collections.unmodifiableList(snaps);
     }
-}
\ No newline at end of file
+
+    /**
+     * Stand-in for ItemStack#serializeAsBytes: a stable kit per player where
+     * only the hotbar drifts between saves, so most stacks dedupe.
+     */
+    private static byte[][] generateSlots(int pIdx, int sIdx, int size, int used) {
+        String[] items = {
+            "minecraft:diamond_sword", "minecraft:bow",        "minecraft:arrow",
+            "minecraft:cooked_beef",   "minecraft:torch",      "minecraft:cobblestone",
+            "minecraft:oak_log",       "minecraft:iron_ingot", "minecraft:ender_pearl"
+        };
+
+        byte[][] slots = new byte[size][];
+        for (int slot = 0; slot < used; slot++) {
+            int drift  = slot < 9 ? sIdx : 0;
+            int amount = 1 + (pIdx * 5 + slot * 3 + drift) % 64;
+            slots[slot] = (items[(pIdx + slot) % items.length] + " x" + amount).getBytes();
+        }
+        return slots;
+    }
+}
@@ -3,11 +3,6 @@ package org.slabserver.demomenu;
 import io.papermc.paper.connection.PlayerGameConnection;
 import io.papermc.paper.dialog.Dialog;
 import io.papermc.paper.event.player.PlayerCustomClickEvent;
-import io.papermc.paper.registry.data.dialog.ActionButton;
-import io.papermc.paper.registry.data.dialog.DialogBase;
-import io.papermc.paper.registry.data.dialog.action.DialogAction;
-import io.papermc.paper.registry.data.dialog.body.DialogBody;
-import io.papermc.paper.registry.data.dialog.type.DialogType;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.JoinConfiguration;
@@ -18,7 +13,15 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
 
 /**
  * SlabSync prototype — full Dialog API navigation demo.
@@ -27,19 +30,49 @@ import java.util.List;
  *
  *   /psync-demo
  *       └─▶ Player List (page 0)      key: psync:list/{page}
- *               └─▶ Snapshot List     key: psync:player/{playerIdx}
- *                       └─▶ Snapshot Detail   key: psync:snapshot/{pIdx}/{sIdx}
- *                               └─▶ [Restore preview]  key: psync:restore/{pIdx}/{sIdx}
+ *               └─▶ Snapshot List     key: psync:player/{uuid}
+ *                       └─▶ Snapshot Detail   key: psync:snapshot/{uuid}/{snapshotId}
+ *                               └─▶ [Restore preview]  key: psync:restore/{uuid}/{snapshotId}
+ *               └─▶ Nearby search form  key: psync:near
+ *                       └─▶ Nearby results    key: psync:near/search  (carries the form response)
+ *                               └─▶ Snapshot Detail
+ *               └─▶ Network stats       key: psync:stats
  *
  * All navigation state is encoded in the Key path.
  * No server-side session maps are used.
  *
+ * Every screen build reads exactly one SnapshotIndex epoch, so a dialog is
+ * always rendered from a consistent roster even while snapshots are being
+ * written from other threads.
+ *
+ * Screens are built as server-independent DemoScreen models, fitted to the
+ * PayloadBudget (component trees flattened, tooltips simplified if needed)
+ * and handed to the presenter, which turns them into a Dialog. Tests swap
+ * the presenter to drive the whole navigation flow headless.
+ *
+ * Players and snapshots are addressed by identity, not list position, so a
+ * click still resolves to the right record after the roster has changed
+ * since the dialog was rendered. {uuid} is the UUID as 32 hex digits with
+ * no dashes; it is parsed straight into two longs and looked up in the
+ * epoch's PlayerIdMap without allocating a UUID.
+ *
+ * The player list and snapshot list can be switched to live mode. Live
+ * viewers are subscribed to LiveRefresh, which re-renders the screen once
+ * whenever its data changes and sends that same Dialog to all of them.
+ * Any other click or command ends the subscription; live screens disable
+ * Escape, which the server would never hear about.
+ *
  * Key namespace: "psync"
  * Key paths:
  *   list/{page}          → open player list at given page (0-2)
- *   player/{idx}         → open snapshot list for player at index
- *   snapshot/{p}/{s}     → open snapshot detail for player p, snapshot s
- *   restore/{p}/{s}      → trigger restore preview notice
+ *   player/{uuid}        → open snapshot list for the player
+ *   snapshot/{uuid}/{id} → open snapshot detail for the player's snapshot id
+ *   restore/{uuid}/{id}  → trigger restore preview notice
+ *   live/{screen path}   → toggle live refresh for list/… or player/…
+ *   near                 → open the "who was near here" form
+ *   near/search          → run the submitted search against the SpatialIndex
+ *   stats                → open the network stats dashboard
+ *   stats/verify         → start a background full rescan, then reopen the dashboard
  */
 @SuppressWarnings("UnstableApiUsage")
 public final class DemoMenuSystem implements Listener {
@@ -48,10 +81,59 @@ public final class DemoMenuSystem implements Listener {
 
     private static final String NS = "psync";
 
-    private static Key listKey(int page)                      { return Key.key(NS, "list/"     + page);           }
-    private static Key playerKey(int playerIdx)               { return Key.key(NS, "player/"   + playerIdx);      }
-    private static Key snapshotKey(int pIdx, int sIdx)        { return Key.key(NS, "snapshot/" + pIdx + "/" + sIdx); }
-    private static Key restoreKey(int pIdx, int sIdx)         { return Key.key(NS, "restore/"  + pIdx + "/" + sIdx); }
+    private static final HexFormat HEX = HexFormat.of();
+
+    static Key listKey(int page)                      { return Key.key(NS, "list/"     + page);                      }
+    static Key playerKey(UUID player)                 { return Key.key(NS, "player/"   + hex(player));               }
+    static Key snapshotKey(UUID player, int snapId)   { return Key.key(NS, "snapshot/" + hex(player) + "/" + snapId); }
+    static Key restoreKey(UUID player, int snapId)    { return Key.key(NS, "restore/"  + hex(player) + "/" + snapId); }
+    static Key liveKey(Key screen)                    { return Key.key(NS, "live/"     + screen.value());            }
+    static Key nearKey()                              { return Key.key(NS, "near");                                  }
+    static Key nearSearchKey()                        { return Key.key(NS, "near/search");                           }
+    static Key statsKey()                             { return Key.key(NS, "stats");                                 }
+    static Key statsVerifyKey()                       { return Key.key(NS, "stats/verify");                          }
+
+    private static String hex(UUID uuid) {
+        return HEX.toHexDigits(uuid.getMostSignificantBits()) + HEX.toHexDigits(uuid.getLeastSignificantBits());
+    }
+
+    /** Parses one half of a 32-digit hex UUID without allocating. */
+    private static long uuidHalf(String hex, int half) {
+        if (hex.length() != 32) throw new NumberFormatException("bad uuid: " + hex);
+        return Long.parseUnsignedLong(hex, half * 16, half * 16 + 16, 16);
+    }
+
+    // ─── Presentation ─────────────────────────────────────────────────────
+
+    /** Shows a built screen to a viewer. Replaced by the headless load harness. */
+    static volatile BiConsumer<Player, DemoScreen> presenter =
+        (viewer, screen) -> viewer.showDialog(screen.toDialog());
+
+    /** Byte budget every screen is optimized and fitted to before it is shown. */
+    static final PayloadBudget PAYLOAD = new PayloadBudget(PayloadBudget.DEFAULT_BUDGET);
+
+    private static void present(Player viewer, DemoScreen screen) {
+        presenter.accept(viewer, PAYLOAD.fit(screen));
+    }
+
+    /** Shared refresh hub for viewers in live mode. Ticked by the plugin. */
+    public static final LiveRefresh LIVE_REFRESH = new LiveRefresh(
+        screen -> renderScreen(screen, true),
+        DemoMenuSystem::affectedScreens,
+        (screen, viewers) -> {
+            Dialog dialog = PAYLOAD.fit(screen).toDialog();   // built once, sent to everyone
+            for (Player viewer : viewers) viewer.showDialog(dialog);
+        }
+    );
+
+    /** Snapshot locations by world; attached to SnapshotIndex.LIVE by the plugin. */
+    public static final SpatialIndex NEARBY = new SpatialIndex();
+
+    /** Network-wide aggregates; attached to SnapshotIndex.LIVE by the plugin. */
+    public static final NetworkStats STATS = new NetworkStats();
+
+    private static final int PAGE_SIZE = 6;
+    private static final int MAX_NEARBY_RESULTS = 30;
 
     // ─── Color palette ────────────────────────────────────────────────────
 
@@ -78,14 +160,24 @@ public final class DemoMenuSystem implements Listener {
         if (path == null) return;
 
         String[] parts = path.split("/");
+        if (!parts[0].equals("live")) LIVE_REFRESH.unsubscribe(viewer); // navigated away
         try {
             switch (parts[0]) {
                 case "list"     -> showPlayerList(viewer, Integer.parseInt(parts[1]));
-                case "player"   -> showSnapshotList(viewer, Integer.parseInt(parts[1]));
-                case "snapshot" -> showSnapshotDetail(viewer, Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
-                case "restore"  -> showRestorePreview(viewer, Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                case "player"   -> showSnapshotList(viewer, uuidHalf(parts[1], 0), uuidHalf(parts[1], 1));
+                case "snapshot" -> showSnapshotDetail(viewer, uuidHalf(parts[1], 0), uuidHalf(parts[1], 1), Integer.parseInt(parts[2]));
+                case "restore"  -> showRestorePreview(viewer, uuidHalf(parts[1], 0), uuidHalf(parts[1], 1), Integer.parseInt(parts[2]));
+                case "live"     -> toggleLive(viewer, Key.key(NS, path.substring("live/".length())));
+                case "near"     -> {
+                    if (parts.length == 1) showNearbyForm(viewer);
+                    else                   showNearbyResults(viewer, NearbyDialog.parse(event.getDialogResponseView()));
+                }
+                case "stats"    -> {
+                    if (parts.length > 1 && parts[1].equals("verify")) STATS.verifyAsync(SnapshotIndex.LIVE);
+                    showNetworkStats(viewer);
+                }
             }
-        } catch (NumberFormatException | ArrayIndexOutOfBoundsException ignored) {
+        } catch (NumberFormatException | IndexOutOfBoundsException ignored) {
             // Malformed key — ignore
         }
     }
@@ -95,25 +187,26 @@ public final class DemoMenuSystem implements Listener {
     // ═══════════════════════════════════════════════════════════════════════
 
     public static void showPlayerList(Player viewer, int page) {
-        viewer.showDialog(buildPlayerList(page));
+        present(viewer, buildPlayerList(page, false));
     }
 
-    private static Dialog buildPlayerList(int page) {
-        final int PAGE_SIZE  = 6;
-        final int TOTAL      = DemoData.PLAYERS.size();   // 18
-        final int TOTAL_PAGES = (TOTAL + PAGE_SIZE - 1) / PAGE_SIZE; // 3
+    private static DemoScreen buildPlayerList(int page, boolean live) {
+        SnapshotIndex.Epoch epoch = SnapshotIndex.LIVE.current();
+        List<DemoData.DemoPlayer> players = epoch.players();
+
+        final int TOTAL       = players.size();
+        final int TOTAL_PAGES = (TOTAL + PAGE_SIZE - 1) / PAGE_SIZE;
 
         int from = page * PAGE_SIZE;
         int to   = Math.min(from + PAGE_SIZE, TOTAL);
-        List<DemoData.DemoPlayer> pagePlayers = DemoData.PLAYERS.subList(from, to);
+        List<DemoData.DemoPlayer> pagePlayers = players.subList(from, to);
 
-        List<ActionButton> buttons = new ArrayList<>();
+        List<DemoScreen.Button> buttons = new ArrayList<>();
 
         // ── One button per player ──────────────────────────────────────────
-        for (int i = 0; i < pagePlayers.size(); i++) {
-            int playerIdx = from + i;
-            DemoData.DemoPlayer p = pagePlayers.get(i);
-            DemoData.DemoSnapshot latest = p.snapshots().get(0);
+        for (DemoData.DemoPlayer p : pagePlayers) {
+            // A player added without history has no latest snapshot yet
+            DemoData.DemoSnapshot latest = p.snapshots().isEmpty() ? null : p.snapshots().get(0);
 
             Component label = Component.text()
                 .append(Component.text("● ", GREEN))
@@ -123,50 +216,63 @@ public final class DemoMenuSystem implements Listener {
 
             Component tooltip = Component.join(JoinConfiguration.newlines(),
                 Component.text("UUID:       ", GRAY).append(Component.text(p.uuid().toString(), DARK_GRAY)),
-                Component.text("Last saved: ", GRAY).append(Component.text(latest.relativeTime(), YELLOW)),
-                Component.text("Server:     ", GRAY).append(Component.text(latest.serverName(), WHITE)),
+                Component.text("Last saved: ", GRAY).append(latest == null
+                    ? Component.text("never", DARK_GRAY)
+                    : Component.text(latest.relativeTime(), YELLOW)),
+                Component.text("Server:     ", GRAY).append(latest == null
+                    ? Component.text("—", DARK_GRAY)
+                    : Component.text(latest.serverName(), WHITE)),
                 Component.text("Snapshots:  ", GRAY).append(Component.text(p.snapshots().size() + " stored", GREEN)),
                 Component.empty(),
                 Component.text("Click to view snapshot history →", AQUA)
             );
 
             // Width 300 forces one player per row in multiAction layout
-            buttons.add(ActionButton.create(label, tooltip, 300, DialogAction.customClick(playerKey(playerIdx), null)));
+            buttons.add(new DemoScreen.Button(label, tooltip, 300, playerKey(p.uuid())));
         }
 
         // ── Pagination row ─────────────────────────────────────────────────
         // Previous and Next sit side-by-side (width 130 each ≈ half the dialog)
         if (page > 0) {
-            buttons.add(ActionButton.create(
+            buttons.add(new DemoScreen.Button(
                 Component.text("← Previous", GRAY),
                 Component.text("Page " + page + " of " + TOTAL_PAGES, GRAY),
                 130,
-                DialogAction.customClick(listKey(page - 1), null)
+                listKey(page - 1)
             ));
         }
         if (page < TOTAL_PAGES - 1) {
-            buttons.add(ActionButton.create(
+            buttons.add(new DemoScreen.Button(
                 Component.text("Next →", GRAY),
                 Component.text("Page " + (page + 2) + " of " + TOTAL_PAGES, GRAY),
                 130,
-                DialogAction.customClick(listKey(page + 1), null)
+                listKey(page + 1)
             ));
         }
-
-        return Dialog.create(b -> b.empty()
-            .base(DialogBase.builder(
-                    Component.text("SlabSync  —  Player List", GOLD).decorate(TextDecoration.BOLD)
-                )
-                .body(List.of(
-                    DialogBody.plainMessage(
-                        Component.text("Page " + (page + 1) + " of " + TOTAL_PAGES, GRAY)
-                            .append(Component.text("  ·  ", DARK_GRAY))
-                            .append(Component.text(TOTAL + " players tracked", GRAY))
-                    )
-                ))
-                .build()
-            )
-            .type(DialogType.multiAction(buttons).build())
+        buttons.add(new DemoScreen.Button(
+            Component.text("⌖ Who was near…", YELLOW),
+            Component.text("Find snapshots saved around a location", GRAY),
+            300,
+            nearKey()
+        ));
+        buttons.add(new DemoScreen.Button(
+            Component.text("Σ Network stats", YELLOW),
+            Component.text("Snapshot totals, averages and save rate across all servers", GRAY),
+            300,
+            statsKey()
+        ));
+        buttons.add(liveButton(listKey(page), live));
+
+        return DemoScreen.multiAction(
+            Component.text("SlabSync  —  Player List", GOLD).decorate(TextDecoration.BOLD),
+            List.of(
+                Component.text("Page " + (page + 1) + " of " + TOTAL_PAGES, GRAY)
+                    .append(Component.text("  ·  ", DARK_GRAY))
+                    .append(Component.text(TOTAL + " players tracked", GRAY))
+                    .append(Component.text("  ·  ", DARK_GRAY))
+                    .append(Component.text(epoch.snapshotCount() + " snapshots", GRAY))
+            ),
+            buttons
         );
     }
 
@@ -174,19 +280,21 @@ public final class DemoMenuSystem implements Listener {
     // SCREEN 2 — Snapshot List (all snapshots for one player)
     // ═══════════════════════════════════════════════════════════════════════
 
-    public static void showSnapshotList(Player viewer, int playerIdx) {
-        viewer.showDialog(buildSnapshotList(playerIdx));
+    public static void showSnapshotList(Player viewer, long uuidMost, long uuidLeast) {
+        SnapshotIndex.Epoch epoch = SnapshotIndex.LIVE.current();
+        int playerIdx = epoch.indexOf(uuidMost, uuidLeast);
+        if (playerIdx == PlayerIdMap.MISSING) return; // stale click for an unknown player
+
+        present(viewer, buildSnapshotList(epoch.players().get(playerIdx), playerIdx, false));
     }
 
-    private static Dialog buildSnapshotList(int playerIdx) {
-        DemoData.DemoPlayer p = DemoData.PLAYERS.get(playerIdx);
+    private static DemoScreen buildSnapshotList(DemoData.DemoPlayer p, int playerIdx, boolean live) {
         List<DemoData.DemoSnapshot> snapshots = p.snapshots();
 
-        List<ActionButton> buttons = new ArrayList<>();
+        List<DemoScreen.Button> buttons = new ArrayList<>();
 
         // ── One button per snapshot ────────────────────────────────────────
-        for (int i = 0; i < snapshots.size(); i++) {
-            DemoData.DemoSnapshot s = snapshots.get(i);
+        for (DemoData.DemoSnapshot s : snapshots) {
 
             // Label: "#1003  ·  2h ago  ·  survival / overworld"
             Component label = Component.text()
@@ -215,37 +323,29 @@ public final class DemoMenuSystem implements Listener {
                 Component.text("Click to view full details →", AQUA)
             );
 
-            buttons.add(ActionButton.create(label, tooltip, 300,
-                DialogAction.customClick(snapshotKey(playerIdx, i), null)));
+            buttons.add(new DemoScreen.Button(label, tooltip, 300, snapshotKey(p.uuid(), s.id())));
         }
 
         // ── Back button ────────────────────────────────────────────────────
-        int originPage = playerIdx / 6;
-        buttons.add(ActionButton.create(
+        int originPage = playerIdx / PAGE_SIZE;
+        buttons.add(new DemoScreen.Button(
             Component.text("← Back to player list", GRAY),
             Component.text("Return to page " + (originPage + 1), GRAY),
             300,
-            DialogAction.customClick(listKey(originPage), null)
+            listKey(originPage)
         ));
-
-        return Dialog.create(b -> b.empty()
-            .base(DialogBase.builder(
-                    Component.text(p.name() + "  —  Snapshots", AQUA).decorate(TextDecoration.BOLD)
-                )
-                .body(List.of(
-                    DialogBody.plainMessage(
-                        Component.text("UUID:  ", GRAY)
-                            .append(Component.text(p.uuid().toString(), DARK_GRAY))
-                    ),
-                    DialogBody.plainMessage(
-                        Component.text(snapshots.size() + " snapshots stored", GRAY)
-                            .append(Component.text("  ·  ", DARK_GRAY))
-                            .append(Component.text("Most recent first", DARK_GRAY))
-                    )
-                ))
-                .build()
-            )
-            .type(DialogType.multiAction(buttons).build())
+        buttons.add(liveButton(playerKey(p.uuid()), live));
+
+        return DemoScreen.multiAction(
+            Component.text(p.name() + "  —  Snapshots", AQUA).decorate(TextDecoration.BOLD),
+            List.of(
+                Component.text("UUID:  ", GRAY)
+                    .append(Component.text(p.uuid().toString(), DARK_GRAY)),
+                Component.text(snapshots.size() + " snapshots stored", GRAY)
+                    .append(Component.text("  ·  ", DARK_GRAY))
+                    .append(Component.text("Most recent first", DARK_GRAY))
+            ),
+            buttons
         );
     }
 
@@ -253,18 +353,19 @@ public final class DemoMenuSystem implements Listener {
     // SCREEN 3 — Snapshot Detail
     // ═══════════════════════════════════════════════════════════════════════
 
-    public static void showSnapshotDetail(Player viewer, int playerIdx, int snapshotIdx) {
-        viewer.showDialog(buildSnapshotDetail(playerIdx, snapshotIdx));
-    }
+    public static void showSnapshotDetail(Player viewer, long uuidMost, long uuidLeast, int snapshotId) {
+        DemoData.DemoPlayer p = SnapshotIndex.LIVE.current().player(uuidMost, uuidLeast);
+        DemoData.DemoSnapshot s = p == null ? null : findSnapshot(p, snapshotId);
+        if (s == null) return; // stale click for an unknown player or snapshot
 
-    private static Dialog buildSnapshotDetail(int playerIdx, int snapshotIdx) {
-        DemoData.DemoPlayer p  = DemoData.PLAYERS.get(playerIdx);
-        DemoData.DemoSnapshot s = p.snapshots().get(snapshotIdx);
+        present(viewer, buildSnapshotDetail(p, s));
+    }
 
+    private static DemoScreen buildSnapshotDetail(DemoData.DemoPlayer p, DemoData.DemoSnapshot s) {
         TextColor healthColor = s.health() >= 15 ? GREEN : (s.health() >= 8 ? YELLOW : RED);
 
         // ── Body: stat lines, mirroring the architecture doc layout ────────
-        List<DialogBody> body = List.of(
+        List<Component> body = List.of(
 
             // Header row
             line(
@@ -305,13 +406,18 @@ public final class DemoMenuSystem implements Listener {
             line(
                 label("Inventory:    "), value(s.inventoryCount() + " / 36 slots used"),
                 sep(), label("Ender Chest: "), value(s.enderChestCount() + " / 27 slots used")
+            ),
+            // Stored contents (content-addressed blobs, served from the hot cache)
+            line(
+                label("Contents:     "), blobSummary(s.inventoryHash()),
+                sep(), label("Contents:    "), blobSummary(s.enderChestHash())
             )
         );
 
         // ── Action buttons ─────────────────────────────────────────────────
-        List<ActionButton> buttons = List.of(
+        List<DemoScreen.Button> buttons = List.of(
 
-            ActionButton.create(
+            new DemoScreen.Button(
                 Component.text("⚠ Restore this snapshot", TextColor.color(0xFF5555)).decorate(TextDecoration.BOLD),
                 Component.join(JoinConfiguration.newlines(),
                     Component.text("Overwrite " + p.name() + "'s current state", RED),
@@ -320,17 +426,17 @@ public final class DemoMenuSystem implements Listener {
                     Component.text("This action cannot be undone.", RED)
                 ),
                 300,
-                DialogAction.customClick(restoreKey(playerIdx, snapshotIdx), null)
+                restoreKey(p.uuid(), s.id())
             ),
 
-            ActionButton.create(
+            new DemoScreen.Button(
                 Component.text("← Back to snapshots", GRAY),
                 Component.text("Return to " + p.name() + "'s snapshot list", GRAY),
                 200,
-                DialogAction.customClick(playerKey(playerIdx), null)
+                playerKey(p.uuid())
             ),
 
-            ActionButton.create(
+            new DemoScreen.Button(
                 Component.text("✖ Close", DARK_GRAY),
                 Component.text("Close this dialog", DARK_GRAY),
                 95,
@@ -338,15 +444,10 @@ public final class DemoMenuSystem implements Listener {
             )
         );
 
-        return Dialog.create(b -> b.empty()
-            .base(DialogBase.builder(
-                    Component.text("Snapshot Detail  —  " + p.name(), GOLD).decorate(TextDecoration.BOLD)
-                )
-                .canCloseWithEscape(true)
-                .body(body)
-                .build()
-            )
-            .type(DialogType.multiAction(buttons).build())
+        return DemoScreen.multiAction(
+            Component.text("Snapshot Detail  —  " + p.name(), GOLD).decorate(TextDecoration.BOLD),
+            body,
+            buttons
         );
     }
 
@@ -354,45 +455,27 @@ public final class DemoMenuSystem implements Listener {
     // SCREEN 4 — Restore Preview (prototype stub — shows a notice)
     // ═══════════════════════════════════════════════════════════════════════
 
-    private static void showRestorePreview(Player viewer, int playerIdx, int snapshotIdx) {
-        DemoData.DemoPlayer p  = DemoData.PLAYERS.get(playerIdx);
-        DemoData.DemoSnapshot s = p.snapshots().get(snapshotIdx);
-
-        Dialog notice = Dialog.create(b -> b.empty()
-            .base(DialogBase.builder(
-                    Component.text("Restore — Not Implemented", RED)
-                )
-                .body(List.of(
-                    DialogBody.plainMessage(
-                        Component.text("This is a prototype demo.", YELLOW)
-                    ),
-                    DialogBody.plainMessage(
-                        Component.text("In production this would restore:", GRAY)
-                    ),
-                    DialogBody.plainMessage(Component.empty()),
-                    DialogBody.plainMessage(
-                        label("Player:   ").append(value(p.name()))
-                    ),
-                    DialogBody.plainMessage(
-                        label("Snapshot: ").append(value("#" + s.id() + "  (" + s.formattedTime() + ")"))
-                    ),
-                    DialogBody.plainMessage(
-                        label("Server:   ").append(value(s.serverName()))
-                    ),
-                    DialogBody.plainMessage(Component.empty()),
-                    DialogBody.plainMessage(
-                        Component.text("The restore flow would show a confirmation", DARK_GRAY)
-                    ),
-                    DialogBody.plainMessage(
-                        Component.text("dialog before applying any changes.", DARK_GRAY)
-                    )
-                ))
-                .build()
+    private static void showRestorePreview(Player viewer, long uuidMost, long uuidLeast, int snapshotId) {
+        DemoData.DemoPlayer p = SnapshotIndex.LIVE.current().player(uuidMost, uuidLeast);
+        DemoData.DemoSnapshot s = p == null ? null : findSnapshot(p, snapshotId);
+        if (s == null) return; // stale click for an unknown player or snapshot
+
+        DemoScreen notice = DemoScreen.notice(
+            Component.text("Restore — Not Implemented", RED),
+            List.of(
+                Component.text("This is a prototype demo.", YELLOW),
+                Component.text("In production this would restore:", GRAY),
+                Component.empty(),
+                label("Player:   ").append(value(p.name())),
+                label("Snapshot: ").append(value("#" + s.id() + "  (" + s.formattedTime() + ")")),
+                label("Server:   ").append(value(s.serverName())),
+                Component.empty(),
+                Component.text("The restore flow would show a confirmation", DARK_GRAY),
+                Component.text("dialog before applying any changes.", DARK_GRAY)
             )
-            .type(DialogType.notice())
         );
 
-        viewer.showDialog(notice);
+        present(viewer, notice);
 
         // Also echo to chat so the wiring is obviously working
         viewer.sendMessage(
@@ -403,13 +486,286 @@ public final class DemoMenuSystem implements Listener {
         );
     }
 
+    // ═══════════════════════════════════════════════════════════════════════
+    // SCREEN 5 — Nearby search (form → results, served by the SpatialIndex)
+    // ═══════════════════════════════════════════════════════════════════════
+
+    private static void showNearbyForm(Player viewer) {
+        List<String> worlds = NEARBY.worlds();
+        if (worlds.isEmpty()) {
+            present(viewer, DemoScreen.notice(
+                Component.text("Nearby search", GOLD),
+                List.of(Component.text("No snapshot locations have been indexed yet.", GRAY))));
+            return;
+        }
+        viewer.showDialog(NearbyDialog.form(worlds, nearSearchKey()));
+    }
+
+    private static void showNearbyResults(Player viewer, SpatialIndex.Query query) {
+        if (query == null) {
+            present(viewer, DemoScreen.notice(
+                Component.text("Nearby search", GOLD),
+                List.of(Component.text("X, Y and Z must be whole numbers.", RED))));
+            return;
+        }
+        present(viewer, buildNearbyResults(query, NEARBY.near(query, MAX_NEARBY_RESULTS)));
+    }
+
+    private static DemoScreen buildNearbyResults(SpatialIndex.Query q, SpatialIndex.Result result) {
+        List<DemoScreen.Button> buttons = new ArrayList<>();
+
+        // ── One button per matching snapshot, closest first ────────────────
+        for (SpatialIndex.Hit hit : result.hits()) {
+            DemoData.DemoSnapshot s = hit.entry().snapshot();
+
+            // Label: "AlphaWolf99  ·  12m away  ·  2h ago"
+            Component label = Component.text()
+                .append(Component.text(hit.entry().playerName(), AQUA))
+                .append(Component.text("  ·  ", DARK_GRAY))
+                .append(Component.text(Math.round(hit.distance()) + "m away", WHITE))
+                .append(Component.text("  ·  ", DARK_GRAY))
+                .append(Component.text(s.relativeTime(), YELLOW))
+                .build();
+
+            Component tooltip = Component.join(JoinConfiguration.newlines(),
+                Component.text(s.formattedTime(), GRAY),
+                Component.text("Location:", GRAY).append(Component.text(
+                    " " + s.x() + ", " + s.y() + ", " + s.z(), WHITE)),
+                Component.text("Snapshot:", GRAY).append(Component.text(" #" + s.id(), WHITE)),
+                Component.empty(),
+                Component.text("Click to view full details →", AQUA)
+            );
+
+            buttons.add(new DemoScreen.Button(label, tooltip, 300, snapshotKey(hit.entry().player(), s.id())));
+        }
+
+        buttons.add(new DemoScreen.Button(
+            Component.text("⌕ New search", GRAY),
+            Component.text("Search another location", GRAY),
+            130,
+            nearKey()
+        ));
+        buttons.add(new DemoScreen.Button(
+            Component.text("← Player list", GRAY),
+            Component.text("Return to page 1", GRAY),
+            130,
+            listKey(0)
+        ));
+
+        Component summary = result.matched() == 0
+            ? Component.text("No snapshots in this area.", YELLOW)
+            : Component.text(result.matched() + " snapshots found", GREEN)
+                .append(Component.text(result.matched() > result.hits().size()
+                    ? "  ·  closest " + result.hits().size() + " shown" : "", GRAY));
+
+        return DemoScreen.multiAction(
+            Component.text("Nearby  —  " + SpatialIndex.worldKey(q.server(), q.world()), GOLD).decorate(TextDecoration.BOLD),
+            List.of(
+                line(
+                    label("Around: "), value(q.x() + ", " + q.y() + ", " + q.z()),
+                    sep(), label("Radius: "), value(q.radius() + "m"),
+                    sep(), label("Height: "), value("±" + q.verticalRange())
+                ),
+                summary,
+                Component.text("Examined " + result.examined() + " of " + NEARBY.size() + " indexed snapshots", DARK_GRAY)
+            ),
+            buttons
+        );
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // SCREEN 6 — Network Stats (read from NetworkStats counters, no scan)
+    // ═══════════════════════════════════════════════════════════════════════
+
+    private static final int STATS_TOP_WORLDS = 8;
+
+    private static void showNetworkStats(Player viewer) {
+        present(viewer, buildNetworkStats(SnapshotIndex.LIVE.current().playerCount(), System.currentTimeMillis() / 1000L));
+    }
+
+    private static DemoScreen buildNetworkStats(int players, long now) {
+        long total = STATS.snapshots();
+        long lastHour = STATS.savedInHours(now, 1);
+        long lastDay  = STATS.savedInHours(now, 24);
+
+        List<Component> body = new ArrayList<>();
+
+        // Header rows
+        body.add(line(
+            label("Players:   "), value(String.valueOf(players)),
+            sep(), label("Snapshots: "), value(String.valueOf(total))
+        ));
+        body.add(line(
+            label("This hour: "), value(lastHour + " saved"),
+            sep(), label("Last 24h: "), value(lastDay + "  (" + String.format(Locale.ROOT, "%.1f", lastDay / 24.0) + "/h)")
+        ));
+
+        body.add(divider());
+
+        // Averages
+        body.add(line(
+            label("Avg health: "), Component.text(String.format(Locale.ROOT, "%.1f ❤", STATS.averageHealth()), GREEN),
+            sep(), label("Food: "), Component.text(String.format(Locale.ROOT, "%.1f", STATS.averageFood()), YELLOW),
+            sep(), label("XP level: "), value(String.format(Locale.ROOT, "%.1f", STATS.averageXpLevel()))
+        ));
+
+        // Game mode distribution, largest first
+        Component modes = label("Game modes: ");
+        boolean first = true;
+        for (Map.Entry<String, Long> e : byCountDescending(STATS.perGamemode())) {
+            if (!first) modes = modes.append(Component.text("  ·  ", DARK_GRAY));
+            modes = modes.append(value(e.getKey() + " " + percent(e.getValue(), total)));
+            first = false;
+        }
+        body.add(modes);
+
+        body.add(divider());
+
+        // Busiest server/world pairs
+        List<Map.Entry<String, Long>> worlds = byCountDescending(STATS.perWorld());
+        for (Map.Entry<String, Long> e : worlds.subList(0, Math.min(STATS_TOP_WORLDS, worlds.size()))) {
+            body.add(line(
+                Component.text(e.getKey(), AQUA),
+                sep(), value(e.getValue() + " snapshots"),
+                Component.text("  (" + percent(e.getValue(), total) + ")", DARK_GRAY)
+            ));
+        }
+        if (worlds.size() > STATS_TOP_WORLDS) {
+            body.add(Component.text("… and " + (worlds.size() - STATS_TOP_WORLDS) + " more", DARK_GRAY));
+        }
+
+        body.add(divider());
+        body.add(verificationLine(STATS.verification()));
+
+        List<DemoScreen.Button> buttons = List.of(
+            new DemoScreen.Button(
+                Component.text("⟳ Verify", GRAY),
+                Component.text("Recount everything with a full parallel scan and compare", GRAY),
+                130,
+                statsVerifyKey()
+            ),
+            new DemoScreen.Button(
+                Component.text("← Player list", GRAY),
+                Component.text("Return to page 1", GRAY),
+                130,
+                listKey(0)
+            )
+        );
+
+        return DemoScreen.multiAction(
+            Component.text("SlabSync  —  Network Stats", GOLD).decorate(TextDecoration.BOLD),
+            body,
+            buttons
+        );
+    }
+
+    private static Component verificationLine(NetworkStats.Verification v) {
+        if (v == null)     return Component.text("Counters not verified yet", DARK_GRAY);
+        if (v.running())   return Component.text("Full scan running… reopen to see the result", YELLOW);
+        String took = String.format(Locale.ROOT, " (epoch %d, %.0f ms)", v.epoch(), v.nanos() / 1e6);
+        if (!v.settled())  return Component.text("Counters were at epoch " + v.applied()
+                                                 + " during the scan; verify again" + took, YELLOW);
+        return v.consistent()
+            ? Component.text("✔ Counters match a full scan" + took, GREEN)
+            : Component.text("✖ Counters differ from a full scan" + took, RED);
+    }
+
+    private static List<Map.Entry<String, Long>> byCountDescending(Map<String, Long> counts) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return entries;
+    }
+
+    private static String percent(long part, long total) {
+        return total == 0 ? "0%" : Math.round(part * 100.0 / total) + "%";
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // Live refresh
+    // ═══════════════════════════════════════════════════════════════════════
+
+    private static void toggleLive(Player viewer, Key screen) {
+        boolean live = !LIVE_REFRESH.isSubscribed(viewer, screen);
+        DemoScreen rendered = renderScreen(screen, live);
+        if (rendered == null) {
+            LIVE_REFRESH.unsubscribe(viewer);
+            return;
+        }
+        if (live) LIVE_REFRESH.subscribe(viewer, screen);
+        else      LIVE_REFRESH.unsubscribe(viewer);
+        present(viewer, rendered);
+    }
+
+    /**
+     * Renders a live-capable screen from its key, or null if it no longer
+     * resolves. Live screens can't be closed with Escape, so the viewer
+     * always leaves through a button and the subscription ends with it.
+     */
+    private static DemoScreen renderScreen(Key screen, boolean live) {
+        DemoScreen built = buildScreen(screen, live);
+        return built != null && live ? built.withoutEscape() : built;
+    }
+
+    private static DemoScreen buildScreen(Key screen, boolean live) {
+        String[] parts = screen.value().split("/");
+        try {
+            return switch (parts[0]) {
+                case "list" -> buildPlayerList(Integer.parseInt(parts[1]), live);
+                case "player" -> {
+                    SnapshotIndex.Epoch epoch = SnapshotIndex.LIVE.current();
+                    int idx = epoch.indexOf(uuidHalf(parts[1], 0), uuidHalf(parts[1], 1));
+                    yield idx == PlayerIdMap.MISSING ? null : buildSnapshotList(epoch.players().get(idx), idx, live);
+                }
+                default -> null;
+            };
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /** Screens whose content depends on the change: the players' snapshot lists and the list pages. */
+    private static Collection<Key> affectedScreens(SnapshotIndex.Change change) {
+        Set<Key> keys = new HashSet<>();
+
+        // Every list page's header shows the player and snapshot totals, so any
+        // change touches all of them; only pages someone is watching matter,
+        // and there are far fewer of those than pages
+        for (Key screen : LIVE_REFRESH.watchedScreens()) {
+            if (screen.value().startsWith("list/")) keys.add(screen);
+        }
+        for (SnapshotIndex.AddedSnapshot added : change.addedSnapshots()) keys.add(playerKey(added.player()));
+        return keys;
+    }
+
+    private static DemoScreen.Button liveButton(Key screen, boolean live) {
+        return live
+            ? new DemoScreen.Button(
+                Component.text("● Live — updating as snapshots arrive", GREEN),
+                Component.text("Click to stop auto-refresh (Escape is disabled while live)", GRAY),
+                300,
+                liveKey(screen))
+            : new DemoScreen.Button(
+                Component.text("○ Go live", GRAY),
+                Component.text("Refresh this screen automatically as new snapshots arrive", GRAY),
+                300,
+                liveKey(screen));
+    }
+
+    // ─── Lookups ───────────────────────────────────────────────────────────
+
+    /** Snapshot by id; histories are short, so a scan beats maintaining another index. */
+    private static DemoData.DemoSnapshot findSnapshot(DemoData.DemoPlayer p, int snapshotId) {
+        for (DemoData.DemoSnapshot s : p.snapshots()) if (s.id() == snapshotId) return s;
+        return null;
+    }
+
     // ─── Component helpers ─────────────────────────────────────────────────
 
     /** A labeled stat block: "Label: " in gray + value in white, joined inline. */
-    private static DialogBody line(Component... parts) {
+    private static Component line(Component... parts) {
         Component combined = Component.empty();
         for (Component part : parts) combined = combined.append(part);
-        return DialogBody.plainMessage(combined);
+        return combined;
     }
 
     private static Component label(String text) {
@@ -426,14 +782,19 @@ public final class DemoMenuSystem implements Listener {
     }
 
     /** Visual divider line used between stat sections. */
-    private static DialogBody divider() {
-        return DialogBody.plainMessage(
-            Component.text("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━", DARK_GRAY)
-        );
+    private static Component divider() {
+        return Component.text("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━", DARK_GRAY);
+    }
+
+    /** "27 stacks · 3fa1c0de" for a stored inventory, or a dash if none was captured. */
+    private static Component blobSummary(String hash) {
+        if (hash == null) return Component.text("—", DARK_GRAY);
+        return value(DemoData.BLOBS.countStacks(hash) + " stacks")
+            .append(Component.text("  ·  " + hash.substring(0, 8), DARK_GRAY));
     }
 
     /** Format a health double as an integer-like string (e.g. 17.5 → "17.5", 20.0 → "20"). */
     private static String formatHealth(double health) {
         return health == Math.floor(health) ? String.valueOf((int) health) : String.valueOf(health);
     }
-}
\ No newline at end of file
+}
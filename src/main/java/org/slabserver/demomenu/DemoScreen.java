@@ -0,0 +1,101 @@
+package org.slabserver.demomenu;
+
+import io.papermc.paper.dialog.Dialog;
+import io.papermc.paper.registry.data.dialog.ActionButton;
+import io.papermc.paper.registry.data.dialog.DialogBase;
+import io.papermc.paper.registry.data.dialog.action.DialogAction;
+import io.papermc.paper.registry.data.dialog.body.DialogBody;
+import io.papermc.paper.registry.data.dialog.type.DialogType;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Server-independent description of one DemoMenuSystem screen.
+ *
+ * Screens are built from plain Adventure Components and Keys, which work
+ * without a running server. Only toDialog() touches the Dialog registry, so
+ * everything up to that call can be exercised headless (see LoadSimulator
+ * in the test sources).
+ *
+ * Each body entry becomes one plainMessage line; each Button becomes one
+ * ActionButton. A null action closes the dialog with no server round-trip;
+ * a null tooltip shows none.
+ *
+ * closeWithEscape is false for live screens: the client doesn't report an
+ * Escape, so a live viewer must leave through a button, which the server
+ * sees and uses to end the subscription.
+ */
+@SuppressWarnings("UnstableApiUsage")
+public record DemoScreen(
+    Component    title,
+    List<Component> body,
+    List<Button> buttons,
+    Kind         kind,
+    boolean      closeWithEscape
+) {
+
+    public enum Kind { MULTI_ACTION, NOTICE }
+
+    public record Button(
+        Component label,
+        Component tooltip,
+        int       width,
+        Key       action
+    ) {}
+
+    public static DemoScreen multiAction(Component title, List<Component> body, List<Button> buttons) {
+        return new DemoScreen(title, List.copyOf(body), List.copyOf(buttons), Kind.MULTI_ACTION, true);
+    }
+
+    /** Notice screens only carry the client's default "OK" button. */
+    public static DemoScreen notice(Component title, List<Component> body) {
+        return new DemoScreen(title, List.copyOf(body), List.of(), Kind.NOTICE, true);
+    }
+
+    /**
+     * Copy with the title, body lines and button labels passed through
+     * {@code text}, and button tooltips through {@code tooltip}.
+     */
+    public DemoScreen map(UnaryOperator<Component> text, UnaryOperator<Component> tooltip) {
+        List<Component> mappedBody = new ArrayList<>(body.size());
+        for (Component line : body) mappedBody.add(text.apply(line));
+
+        List<Button> mappedButtons = new ArrayList<>(buttons.size());
+        for (Button b : buttons) {
+            mappedButtons.add(new Button(text.apply(b.label()), tooltip.apply(b.tooltip()), b.width(), b.action()));
+        }
+        return new DemoScreen(text.apply(title), List.copyOf(mappedBody), List.copyOf(mappedButtons), kind, closeWithEscape);
+    }
+
+    /** Copy that the client can't dismiss with Escape; see the class comment. */
+    public DemoScreen withoutEscape() {
+        return new DemoScreen(title, body, buttons, kind, false);
+    }
+
+    /** Assembles the Paper Dialog. Requires a running server. */
+    public Dialog toDialog() {
+        List<DialogBody> dialogBody = new ArrayList<>(body.size());
+        for (Component line : body) dialogBody.add(DialogBody.plainMessage(line));
+
+        List<ActionButton> actionButtons = new ArrayList<>(buttons.size());
+        for (Button b : buttons) {
+            actionButtons.add(ActionButton.create(
+                b.label(), b.tooltip(), b.width(),
+                b.action() == null ? null : DialogAction.customClick(b.action(), null)
+            ));
+        }
+
+        return Dialog.create(f -> f.empty()
+            .base(DialogBase.builder(title)
+                .canCloseWithEscape(closeWithEscape)
+                .body(dialogBody)
+                .build()
+            )
+            .type(kind == Kind.NOTICE ? DialogType.notice() : DialogType.multiAction(actionButtons).build())
+        );
+    }
+}
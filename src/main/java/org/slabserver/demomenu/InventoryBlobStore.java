@@ -0,0 +1,297 @@
+package org.slabserver.demomenu;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Content-addressed, deduplicated store for inventory and ender chest contents.
+ * No Paper API imports — callers hand in each slot already serialized
+ * (ItemStack#serializeAsBytes on a real server).
+ *
+ * ─── Layout ─────────────────────────────────────────────────────────────────
+ *
+ *   Stack blob     the serialized bytes of one item stack
+ *   Manifest blob  slot count + (slot, stack hash) for every non-empty slot
+ *
+ * Every blob is keyed by the SHA-256 of its uncompressed bytes and stored
+ * exactly once, Deflater-compressed unless that would make it larger (single
+ * stacks are often too small to benefit). A snapshot references its inventory
+ * by the manifest hash, so an unchanged stack costs nothing after its first
+ * save and an unchanged inventory costs nothing at all.
+ *
+ * Decompressed blobs are kept in a small LRU so detail screens that re-open
+ * the same snapshot don't inflate it again.
+ *
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+public final class InventoryBlobStore {
+
+    private static final int HASH_BYTES      = 32;
+    private static final byte RAW            = 0;
+    private static final byte DEFLATED       = 1;
+    private static final int HOT_CACHE_BLOBS = 4096;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    });
+
+    /** Blob directory, or null to keep compressed blobs in memory. */
+    private final Path root;
+    private final Map<String, byte[]> memory = new ConcurrentHashMap<>();
+
+    private final Map<String, byte[]> hot = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > HOT_CACHE_BLOBS;
+        }
+    };
+
+    private final AtomicLong blobsWritten = new AtomicLong();
+    private final AtomicLong dedupHits    = new AtomicLong();
+    private final AtomicLong rawBytes     = new AtomicLong();
+    private final AtomicLong storedBytes  = new AtomicLong();
+
+    private InventoryBlobStore(Path root) {
+        this.root = root;
+    }
+
+    /** Store that keeps compressed blobs on the heap. Used for the demo dataset. */
+    public static InventoryBlobStore inMemory() {
+        return new InventoryBlobStore(null);
+    }
+
+    /** Store backed by {@code dir/ab/abcdef…} files, created on demand. */
+    public static InventoryBlobStore open(Path dir) {
+        return new InventoryBlobStore(dir);
+    }
+
+    // ─── Inventories ──────────────────────────────────────────────────────
+
+    /**
+     * Stores one inventory and returns its manifest hash.
+     *
+     * @param slots serialized stack per slot; null marks an empty slot
+     */
+    public String putInventory(byte[][] slots) {
+        var manifest = new ByteArrayOutputStream(8 + slots.length * (2 + HASH_BYTES));
+        try (var out = new DataOutputStream(manifest)) {
+            out.writeShort(slots.length);
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] == null) continue;
+                out.writeShort(i);
+                out.write(put(slots[i]));
+            }
+            out.writeShort(-1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HEX.formatHex(put(manifest.toByteArray()));
+    }
+
+    /**
+     * Loads an inventory by manifest hash; empty slots come back as null.
+     * Slot arrays are shared with the hot cache — treat them as read-only.
+     */
+    public byte[][] loadInventory(String hash) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(blob(hash)))) {
+            byte[][] slots = new byte[in.readShort()][];
+            byte[] stackHash = new byte[HASH_BYTES];
+            for (int slot = in.readShort(); slot >= 0; slot = in.readShort()) {
+                in.readFully(stackHash);
+                slots[slot] = blob(HEX.formatHex(stackHash));
+            }
+            return slots;
+        } catch (IOException e) {
+            throw new UncheckedIOException("corrupt manifest " + hash, e);
+        }
+    }
+
+    /** Non-empty slots in an inventory. Reads only the manifest; no stack is inflated. */
+    public int countStacks(String hash) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(blob(hash)))) {
+            in.readShort();                                 // slot count
+            int stacks = 0;
+            for (int slot = in.readShort(); slot >= 0; slot = in.readShort()) {
+                in.skipNBytes(HASH_BYTES);
+                stacks++;
+            }
+            return stacks;
+        } catch (IOException e) {
+            throw new UncheckedIOException("corrupt manifest " + hash, e);
+        }
+    }
+
+    // ─── Blobs ────────────────────────────────────────────────────────────
+
+    /** Stores a blob if it isn't already present and returns its raw hash. */
+    private byte[] put(byte[] content) {
+        byte[] hash = SHA256.get().digest(content);
+        String key  = HEX.formatHex(hash);
+        rawBytes.addAndGet(content.length);
+
+        if (contains(key)) {
+            dedupHits.incrementAndGet();
+            return hash;
+        }
+
+        byte[] compressed = encode(content);
+        if (write(key, compressed)) {
+            blobsWritten.incrementAndGet();
+            storedBytes.addAndGet(compressed.length);
+        } else {
+            dedupHits.incrementAndGet();
+        }
+        return hash;
+    }
+
+    /** Decompressed blob, served from the hot cache when possible. */
+    private byte[] blob(String key) {
+        synchronized (hot) {
+            byte[] cached = hot.get(key);
+            if (cached != null) return cached;
+        }
+        byte[] content = decode(read(key), key);
+        synchronized (hot) {
+            hot.put(key, content);
+        }
+        return content;
+    }
+
+    private boolean contains(String key) {
+        return root == null ? memory.containsKey(key) : Files.exists(path(key));
+    }
+
+    /**
+     * Writes to a temp file and hard-links it into place. Linking fails if
+     * the target exists, so exactly one of several racing writers wins, and
+     * the blob only ever appears under its name complete. (An ATOMIC_MOVE
+     * would silently replace the target on POSIX, and every racer would
+     * count itself as the writer.)
+     *
+     * @return false if another writer stored the same blob first
+     */
+    private boolean write(String key, byte[] compressed) {
+        if (root == null) return memory.putIfAbsent(key, compressed) == null;
+
+        Path target = path(key);
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), key, ".tmp");
+            try {
+                Files.write(tmp, compressed);
+                try {
+                    Files.createLink(target, tmp);
+                } catch (UnsupportedOperationException noLinks) {
+                    Files.move(tmp, target);        // no REPLACE_EXISTING: still fails if present
+                }
+                return true;
+            } catch (FileAlreadyExistsException raced) {
+                return false;
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to write blob " + key, e);
+        }
+    }
+
+    private byte[] read(String key) {
+        if (root == null) {
+            byte[] compressed = memory.get(key);
+            if (compressed == null) throw new IllegalArgumentException("unknown blob " + key);
+            return compressed;
+        }
+        try {
+            return Files.readAllBytes(path(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to read blob " + key, e);
+        }
+    }
+
+    private Path path(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    // ─── Compression ──────────────────────────────────────────────────────
+
+    /** One header byte (RAW / DEFLATED) followed by the payload. */
+    private static byte[] encode(byte[] content) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(Math.max(64, content.length / 2));
+            out.write(DEFLATED);
+            byte[] buf = new byte[1024];
+            while (!deflater.finished()) out.write(buf, 0, deflater.deflate(buf));
+            if (out.size() <= content.length) return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+
+        byte[] raw = new byte[content.length + 1];
+        raw[0] = RAW;
+        System.arraycopy(content, 0, raw, 1, content.length);
+        return raw;
+    }
+
+    private static byte[] decode(byte[] stored, String key) {
+        if (stored.length == 0) throw new IllegalStateException("empty blob " + key);
+        if (stored[0] == RAW) return Arrays.copyOfRange(stored, 1, stored.length);
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, 1, stored.length - 1);
+            var out = new ByteArrayOutputStream(stored.length * 3);
+            byte[] buf = new byte[1024];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buf);
+                if (n == 0 && inflater.needsInput()) throw new IllegalStateException("truncated blob " + key);
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("corrupt blob " + key, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // ─── Metrics ──────────────────────────────────────────────────────────
+
+    /**
+     * @param blobs       distinct blobs stored
+     * @param dedupHits   puts that found their blob already stored
+     * @param rawBytes    bytes handed to the store, before dedup and compression
+     * @param storedBytes compressed bytes actually kept
+     */
+    public record Stats(long blobs, long dedupHits, long rawBytes, long storedBytes) {}
+
+    public Stats stats() {
+        return new Stats(blobsWritten.get(), dedupHits.get(), rawBytes.get(), storedBytes.get());
+    }
+}
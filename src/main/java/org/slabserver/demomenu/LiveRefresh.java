@@ -0,0 +1,168 @@
+package org.slabserver.demomenu;
+
+import net.kyori.adventure.key.Key;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Live-refresh hub: viewers who opt in get their open screen re-sent as its
+ * data changes, with one render per screen no matter how many are watching.
+ *
+ * ─── Flow ───────────────────────────────────────────────────────────────────
+ *
+ *   SnapshotIndex publish ──▶ onChange()  marks the affected screen keys dirty
+ *                                         (any thread; just a set insert)
+ *
+ *   scheduler, every N ticks ──▶ tick()   for each dirty key with subscribers:
+ *                                         render once → fan out to everyone
+ *
+ * Any number of publishes between two ticks collapse into a single refresh,
+ * and a screen whose data didn't change is never re-rendered.
+ *
+ * The client doesn't tell the server when a dialog is closed with Escape, so
+ * live screens are built without Escape and callers unsubscribe on every
+ * other click or command. A subscription also ends when the viewer quits,
+ * and SUBSCRIPTION_TTL after it was started as a last resort.
+ *
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+public final class LiveRefresh implements Listener {
+
+    static final long SUBSCRIPTION_TTL = TimeUnit.MINUTES.toNanos(10);
+
+    private record Subscription(Key screen, Player viewer, long startedAt) {}
+
+    private final Function<Key, DemoScreen> renderer;
+    private final Function<SnapshotIndex.Change, Collection<Key>> affected;
+    private final BiConsumer<DemoScreen, Collection<Player>> fanout;
+
+    private final Map<UUID, Subscription>  byViewer = new ConcurrentHashMap<>();
+    private final Map<Key, Set<UUID>>      byScreen = new ConcurrentHashMap<>();
+    private final Set<Key>                 dirty    = ConcurrentHashMap.newKeySet();
+
+    private long renders;
+    private long deliveries;
+
+    /**
+     * @param renderer renders the live version of a screen key, or null if it no longer exists
+     * @param affected screen keys whose content depends on the given change
+     * @param fanout   sends one rendered screen to every listed viewer
+     */
+    public LiveRefresh(Function<Key, DemoScreen> renderer,
+                       Function<SnapshotIndex.Change, Collection<Key>> affected,
+                       BiConsumer<DemoScreen, Collection<Player>> fanout) {
+        this.renderer = renderer;
+        this.affected = affected;
+        this.fanout   = fanout;
+    }
+
+    // ─── Subscriptions ────────────────────────────────────────────────────
+
+    /** Subscribes the viewer to a screen, replacing any previous subscription. */
+    public void subscribe(Player viewer, Key screen) {
+        unsubscribe(viewer);
+        byViewer.put(viewer.getUniqueId(), new Subscription(screen, viewer, System.nanoTime()));
+        byScreen.computeIfAbsent(screen, k -> ConcurrentHashMap.newKeySet()).add(viewer.getUniqueId());
+    }
+
+    public void unsubscribe(Player viewer) {
+        Subscription old = byViewer.remove(viewer.getUniqueId());
+        if (old != null) removeFromScreen(old.screen(), viewer.getUniqueId());
+    }
+
+    public boolean isSubscribed(Player viewer, Key screen) {
+        Subscription s = byViewer.get(viewer.getUniqueId());
+        return s != null && s.screen().equals(screen);
+    }
+
+    /** Screens with at least one live viewer. Read-only, weakly consistent view. */
+    public Set<Key> watchedScreens() {
+        return Collections.unmodifiableSet(byScreen.keySet());
+    }
+
+    private void removeFromScreen(Key screen, UUID viewer) {
+        byScreen.computeIfPresent(screen, (k, viewers) -> {
+            viewers.remove(viewer);
+            return viewers.isEmpty() ? null : viewers;
+        });
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        unsubscribe(event.getPlayer());
+    }
+
+    // ─── Change intake ────────────────────────────────────────────────────
+
+    /** SnapshotIndex subscriber. Only marks screens that someone is watching. */
+    public void onChange(SnapshotIndex.Change change) {
+        for (Key screen : affected.apply(change)) {
+            if (byScreen.containsKey(screen)) dirty.add(screen);
+        }
+    }
+
+    // ─── Tick ─────────────────────────────────────────────────────────────
+
+    /** Renders each dirty, watched screen once and fans it out. Main thread. */
+    public void tick() {
+        expireStale();
+        if (dirty.isEmpty()) return;
+
+        for (Iterator<Key> it = dirty.iterator(); it.hasNext(); ) {
+            Key screen = it.next();
+            it.remove();
+
+            Set<UUID> ids = byScreen.get(screen);
+            if (ids == null || ids.isEmpty()) continue;
+
+            List<Player> viewers = new ArrayList<>(ids.size());
+            for (UUID id : ids) {
+                Subscription s = byViewer.get(id);
+                if (s != null && s.screen().equals(screen)) viewers.add(s.viewer());
+            }
+            if (viewers.isEmpty()) continue;
+
+            DemoScreen rendered = renderer.apply(screen);
+            if (rendered == null) continue;
+            renders++;
+            deliveries += viewers.size();
+            fanout.accept(rendered, viewers);
+        }
+    }
+
+    private void expireStale() {
+        long cutoff = System.nanoTime() - SUBSCRIPTION_TTL;
+        for (Subscription s : byViewer.values()) {
+            if (s.startedAt() - cutoff < 0) unsubscribe(s.viewer());
+        }
+    }
+
+    // ─── Metrics ──────────────────────────────────────────────────────────
+
+    /**
+     * @param subscribers viewers currently live
+     * @param screens     distinct screens being watched
+     * @param renders     screens rendered by tick() so far
+     * @param deliveries  dialogs sent by tick() so far
+     */
+    public record Stats(int subscribers, int screens, long renders, long deliveries) {}
+
+    public Stats stats() {
+        return new Stats(byViewer.size(), byScreen.size(), renders, deliveries);
+    }
+}
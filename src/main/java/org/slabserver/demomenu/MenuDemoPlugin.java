@@ -1,31 +1,79 @@
 package org.slabserver.demomenu;
 
 import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.LongArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import io.papermc.paper.command.brigadier.CommandSourceStack;
 import io.papermc.paper.command.brigadier.Commands;
 import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
 /**
  * Plugin entry point.
  *
  * Commands registered:
  *   /demomenu      — opens the four-input form demo (DemoDialog)
  *   /psync-demo    — opens the paginated player list (DemoMenuSystem)
+ *   /slabsync-export player|server|range|last … ndjson|csv
+ *                  — streams snapshot history to plugins/MenuDemoPlugin/exports
+ *                    on an async task (SnapshotExporter)
  *
  * Listeners registered:
  *   DemoDialog      — handles form submission
  *   DemoMenuSystem  — handles all psync:list/player/snapshot/restore navigation
+ *   LiveRefresh     — drops live-refresh subscriptions on quit
+ *
+ * Index feeds:
+ *   SpatialIndex    — DemoMenuSystem.NEARBY follows SnapshotIndex.LIVE
+ *   NetworkStats    — DemoMenuSystem.STATS follows SnapshotIndex.LIVE
+ *
+ * Tasks scheduled:
+ *   LiveRefresh.tick — once a second, re-sends changed screens to live viewers
  */
 @SuppressWarnings("UnstableApiUsage")
 public class MenuDemoPlugin extends JavaPlugin {
 
+    private static final long EXPORT_PROGRESS_INTERVAL = TimeUnit.SECONDS.toNanos(2);
+    private static final DateTimeFormatter EXPORT_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private Consumer<SnapshotIndex.Change> liveFeed;
+
     @Override
     public void onEnable() {
 
         // ── Register listeners ─────────────────────────────────────────────
         getServer().getPluginManager().registerEvents(new DemoDialog(),     this);
         getServer().getPluginManager().registerEvents(new DemoMenuSystem(), this);
+        getServer().getPluginManager().registerEvents(DemoMenuSystem.LIVE_REFRESH, this);
+
+        // ── Live refresh: coalesce index changes, flush once a second ──────
+        liveFeed = DemoMenuSystem.LIVE_REFRESH::onChange;
+        SnapshotIndex.LIVE.subscribe(liveFeed);
+        getServer().getScheduler().runTaskTimer(this, DemoMenuSystem.LIVE_REFRESH::tick, 20L, 20L);
+
+        // ── Nearby search: seed the spatial index and keep it following ────
+        DemoMenuSystem.NEARBY.attach(SnapshotIndex.LIVE);
+
+        // ── Network stats: seed with a full scan, then count incrementally ─
+        DemoMenuSystem.STATS.attach(SnapshotIndex.LIVE);
 
         // ── Register commands ──────────────────────────────────────────────
         getLifecycleManager().registerEventHandler(LifecycleEvents.COMMANDS, event -> {
@@ -35,7 +83,9 @@ public class MenuDemoPlugin extends JavaPlugin {
                 Commands.literal("demomenu")
                     .requires(src -> src.getSender() instanceof Player)
                     .executes(ctx -> {
-                        DemoDialog.open((Player) ctx.getSource().getSender());
+                        Player player = (Player) ctx.getSource().getSender();
+                        DemoMenuSystem.LIVE_REFRESH.unsubscribe(player);   // don't push over the form
+                        DemoDialog.open(player);
                         return Command.SINGLE_SUCCESS;
                     })
                     .build(),
@@ -47,12 +97,111 @@ public class MenuDemoPlugin extends JavaPlugin {
                 Commands.literal("slabsync-demo")
                     .requires(src -> src.getSender() instanceof Player)
                     .executes(ctx -> {
-                        DemoMenuSystem.showPlayerList((Player) ctx.getSource().getSender(), 0);
+                        Player player = (Player) ctx.getSource().getSender();
+                        DemoMenuSystem.LIVE_REFRESH.unsubscribe(player);   // fresh, non-live list
+                        DemoMenuSystem.showPlayerList(player, 0);
                         return Command.SINGLE_SUCCESS;
                     })
                     .build(),
                 "Opens the SlabSync data snapshot browser demo"
             );
+
+            // /slabsync-export — streams snapshot history to a file off-thread
+            event.registrar().register(
+                exportCommand().build(),
+                "Exports SlabSync snapshot history as NDJSON or CSV"
+            );
+        });
+    }
+
+    // ─── /slabsync-export ─────────────────────────────────────────────────
+
+    private LiteralArgumentBuilder<CommandSourceStack> exportCommand() {
+        return Commands.literal("slabsync-export")
+            .requires(src -> src.getSender().hasPermission("demomenu.export"))
+            .then(Commands.literal("player")
+                .then(Commands.argument("name", StringArgumentType.word())
+                    .then(exportFormat(ctx -> new SnapshotExporter.Scope.OfPlayer(
+                        StringArgumentType.getString(ctx, "name"))))))
+            .then(Commands.literal("server")
+                .then(Commands.argument("name", StringArgumentType.word())
+                    .then(exportFormat(ctx -> new SnapshotExporter.Scope.OfServer(
+                        StringArgumentType.getString(ctx, "name"))))))
+            .then(Commands.literal("range")
+                .then(Commands.argument("from", LongArgumentType.longArg(0))
+                    .then(Commands.argument("to", LongArgumentType.longArg(0))
+                        .then(exportFormat(ctx -> new SnapshotExporter.Scope.InRange(
+                            LongArgumentType.getLong(ctx, "from"), LongArgumentType.getLong(ctx, "to")))))))
+            .then(Commands.literal("last")
+                .then(Commands.argument("hours", IntegerArgumentType.integer(1))
+                    .then(exportFormat(ctx -> {
+                        long now = System.currentTimeMillis() / 1000L;
+                        return new SnapshotExporter.Scope.InRange(
+                            now - IntegerArgumentType.getInteger(ctx, "hours") * 3600L, now);
+                    }))));
+    }
+
+    /** Trailing {@code <format>} argument shared by every export scope. */
+    private RequiredArgumentBuilder<CommandSourceStack, String> exportFormat(
+            Function<CommandContext<CommandSourceStack>, SnapshotExporter.Scope> scope) {
+        return Commands.argument("format", StringArgumentType.word())
+            .suggests((ctx, builder) -> {
+                for (SnapshotExporter.Format f : SnapshotExporter.Format.values()) builder.suggest(f.id());
+                return builder.buildFuture();
+            })
+            .executes(ctx -> {
+                CommandSender sender = ctx.getSource().getSender();
+                SnapshotExporter.Format format = SnapshotExporter.Format.parse(StringArgumentType.getString(ctx, "format"));
+                if (format == null) {
+                    sender.sendMessage(Component.text("Format must be ndjson or csv.", NamedTextColor.RED));
+                    return 0;
+                }
+                startExport(sender, scope.apply(ctx), format);
+                return Command.SINGLE_SUCCESS;
+            });
+    }
+
+    /**
+     * Pins the current epoch on the calling thread, then streams it on an async
+     * task. Progress is reported every EXPORT_PROGRESS_INTERVAL; messages are
+     * bounced back to the main thread before they reach the sender.
+     */
+    private void startExport(CommandSender sender, SnapshotExporter.Scope scope, SnapshotExporter.Format format) {
+        SnapshotIndex.Epoch epoch = SnapshotIndex.LIVE.current();
+        String name = scope.slug() + "-" + LocalDateTime.now().format(EXPORT_STAMP) + "." + format.id();
+        Path target = getDataFolder().toPath().resolve("exports").resolve(name);
+
+        sender.sendMessage(Component.text("Exporting " + epoch.playerCount() + " players to exports/" + name + " …",
+            NamedTextColor.GRAY));
+
+        getServer().getScheduler().runTaskAsynchronously(this, () -> {
+            long[] lastReport = { System.nanoTime() };
+            try {
+                SnapshotExporter.Progress done = SnapshotExporter.export(epoch, scope, format, target, progress -> {
+                    long now = System.nanoTime();
+                    if (now - lastReport[0] < EXPORT_PROGRESS_INTERVAL) return;
+                    lastReport[0] = now;
+                    tell(sender, Component.text(String.format(Locale.ROOT, "  %d%%  ·  %,d rows  ·  %,.0f rows/s",
+                        progress.percent(), progress.rows(), progress.rowsPerSecond()), NamedTextColor.DARK_GRAY));
+                });
+                tell(sender, Component.text(String.format(Locale.ROOT, "Exported %,d rows to exports/%s in %.1fs (%,.0f rows/s)",
+                    done.rows(), name, done.elapsedNanos() / 1e9, done.rowsPerSecond()), NamedTextColor.GREEN));
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Snapshot export to " + target + " failed", e);
+                tell(sender, Component.text("Export failed: " + e.getMessage(), NamedTextColor.RED));
+            }
         });
     }
-}
\ No newline at end of file
+
+    private void tell(CommandSender sender, Component message) {
+        if (isEnabled()) getServer().getScheduler().runTask(this, () -> sender.sendMessage(message));
+    }
+
+    @Override
+    public void onDisable() {
+        // The index outlives a plugin reload; don't leave a dead subscriber behind
+        if (liveFeed != null) SnapshotIndex.LIVE.unsubscribe(liveFeed);
+        DemoMenuSystem.NEARBY.detach(SnapshotIndex.LIVE);
+        DemoMenuSystem.STATS.detach(SnapshotIndex.LIVE);
+    }
+}
@@ -0,0 +1,110 @@
+package org.slabserver.demomenu;
+
+import io.papermc.paper.dialog.Dialog;
+import io.papermc.paper.dialog.DialogResponseView;
+import io.papermc.paper.registry.data.dialog.ActionButton;
+import io.papermc.paper.registry.data.dialog.DialogBase;
+import io.papermc.paper.registry.data.dialog.action.DialogAction;
+import io.papermc.paper.registry.data.dialog.body.DialogBody;
+import io.papermc.paper.registry.data.dialog.input.DialogInput;
+import io.papermc.paper.registry.data.dialog.input.SingleOptionDialogInput;
+import io.papermc.paper.registry.data.dialog.type.DialogType;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Input form for the "who was near here" search (DemoMenuSystem SCREEN 5).
+ *
+ * Inputs:
+ *   world   singleOption  every "server/world" the SpatialIndex has seen
+ *   x/y/z   text          block coordinates; parsed on submit
+ *   radius  numberRange   horizontal radius, 1 – SpatialIndex.MAX_RADIUS
+ *   height  numberRange   how far above/below y a snapshot may be
+ *
+ * The confirm button sends the submit key back with the response view;
+ * DemoMenuSystem reads it with parse() and renders the results screen.
+ */
+@SuppressWarnings("UnstableApiUsage")
+final class NearbyDialog {
+
+    private NearbyDialog() {}
+
+    /** Builds the form. Requires a running server. */
+    static Dialog form(List<String> worlds, Key submit) {
+        List<SingleOptionDialogInput.OptionEntry> options = new ArrayList<>(worlds.size());
+        for (int i = 0; i < worlds.size(); i++) {
+            options.add(SingleOptionDialogInput.OptionEntry.create(worlds.get(i), Component.text(worlds.get(i)), i == 0));
+        }
+
+        return Dialog.create(builder -> builder.empty()
+            .base(
+                DialogBase.builder(Component.text("Who was near here?", NamedTextColor.GOLD))
+                    .canCloseWithEscape(true)
+                    .body(List.of(
+                        DialogBody.plainMessage(
+                            Component.text("Finds snapshots saved within the radius of a location.", NamedTextColor.GRAY)
+                        )
+                    ))
+                    .inputs(List.of(
+                        DialogInput.singleOption("world", Component.text("World"), options).build(),
+                        DialogInput.text("x", Component.text("X")).initial("0").width(100).build(),
+                        DialogInput.text("y", Component.text("Y")).initial("64").width(100).build(),
+                        DialogInput.text("z", Component.text("Z")).initial("0").width(100).build(),
+                        DialogInput.numberRange("radius", Component.text("Radius"), 1f, SpatialIndex.MAX_RADIUS)
+                            .initial(32f)
+                            .step(1f)
+                            .width(200)
+                            .labelFormat("%1$s: %2$s blocks")
+                            .build(),
+                        DialogInput.numberRange("height", Component.text("Height ±"), 0f, 384f)
+                            .initial(384f)
+                            .step(1f)
+                            .width(200)
+                            .labelFormat("%1$s: %2$s blocks")
+                            .build()
+                    ))
+                    .build()
+            )
+            .type(DialogType.confirmation(
+                ActionButton.builder(Component.text("⌕ Search", TextColor.color(0x55FF55)))
+                    .tooltip(Component.text("List snapshots in this area"))
+                    .action(DialogAction.customClick(submit, null))
+                    .build(),
+                ActionButton.builder(Component.text("✖ Cancel", TextColor.color(0xFF5555)))
+                    .tooltip(Component.text("Discard and close"))
+                    .action(null)
+                    .build()
+            ))
+        );
+    }
+
+    /** The submitted query, or null if the response is missing or a coordinate isn't a whole number. */
+    static SpatialIndex.Query parse(DialogResponseView view) {
+        if (view == null) return null;
+        String world = view.getText("world");
+        int slash = world == null ? -1 : world.indexOf('/');
+        if (slash < 0) return null;
+        try {
+            return new SpatialIndex.Query(
+                world.substring(0, slash), world.substring(slash + 1),
+                coordinate(view, "x"),
+                coordinate(view, "y"),
+                coordinate(view, "z"),
+                view.getFloat("radius").intValue(),
+                view.getFloat("height").intValue());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int coordinate(DialogResponseView view, String key) {
+        String text = view.getText(key);
+        if (text == null) throw new NumberFormatException("missing " + key);
+        return Integer.parseInt(text.trim());
+    }
+}
@@ -0,0 +1,328 @@
+package org.slabserver.demomenu;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Network-wide aggregates over every snapshot: counts per server/world and
+ * game mode, health/food/XP sums for averages, and saves per hour.
+ * No Paper API imports — pure Java.
+ *
+ * ─── Incremental path ───────────────────────────────────────────────────────
+ *
+ * Each SnapshotIndex Change adds its snapshots to LongAdder counters, so
+ * concurrent publishers update different cells instead of contending on one
+ * field. Reading the totals costs the number of distinct keys (servers,
+ * worlds, game modes, hours asked for), never the number of snapshots.
+ *
+ * Health is summed as a fixed-point long in thousandths (HEALTH_SCALE), since
+ * live health is any double (13.7 after a hit, not just half-hearts). Both
+ * paths round each snapshot the same way, so a rebuilt total still compares
+ * equal to the incremental one, and the average is off by at most 0.0005.
+ *
+ * ─── Full rebuild ───────────────────────────────────────────────────────────
+ *
+ * scan() recomputes the same Totals from an epoch with a fork-join split over
+ * the roster. attach() seeds the counters from it; verifyAsync() runs it in
+ * the background and records whether it agrees with the counters.
+ *
+ * Change handlers share the read side of a read-write lock, so they still run
+ * in parallel; attach() takes the write side while it swaps in the seed, and
+ * skips changes from epochs the seed already covered.
+ *
+ * A publish is visible before its Change reaches the counters, and Changes
+ * can arrive out of order. appliedThrough() is the highest version V such
+ * that every epoch up to V is fully counted; verifyAsync() only trusts a
+ * comparison made while that equals the scanned epoch. Every version bump
+ * carries a Change (SnapshotIndex skips no-op publishes), so V never stalls.
+ *
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+public final class NetworkStats {
+
+    static final int SCAN_THRESHOLD = 256;     // players per fork-join leaf
+    static final int HEALTH_SCALE   = 1000;    // fixed-point units per health point
+
+    /**
+     * A point-in-time set of totals, from the counters or from a scan.
+     *
+     * @param perWorld    snapshots per "server/world"
+     * @param perGamemode snapshots per game mode
+     * @param perHour     snapshots per save hour (epochSecond / 3600)
+     * @param healthSum   health in 1 / HEALTH_SCALE points
+     */
+    public record Totals(
+        long snapshots,
+        Map<String, Long> perWorld,
+        Map<String, Long> perGamemode,
+        Map<Long, Long>   perHour,
+        long healthSum,
+        long foodSum,
+        long xpLevelSum
+    ) {}
+
+    /**
+     * Outcome of the last verifyAsync().
+     *
+     * @param running    a scan is still in progress
+     * @param epoch      version of the epoch that was scanned
+     * @param applied    appliedThrough() when the counters were read
+     * @param consistent the scan matched the counters
+     * @param settled    the counters had applied exactly the scanned epoch, so the comparison is meaningful
+     * @param nanos      scan duration
+     */
+    public record Verification(boolean running, long epoch, long applied, boolean consistent, boolean settled, long nanos) {}
+
+    // ─── Counters ─────────────────────────────────────────────────────────
+
+    private final LongAdder snapshots  = new LongAdder();
+    private final LongAdder healthSum  = new LongAdder();
+    private final LongAdder foodSum    = new LongAdder();
+    private final LongAdder xpLevelSum = new LongAdder();
+
+    private final Map<String, LongAdder> perWorld    = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> perGamemode = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder>   perHour     = new ConcurrentHashMap<>();
+
+    private final ReentrantReadWriteLock seedLock = new ReentrantReadWriteLock();
+    private final Consumer<SnapshotIndex.Change> feed = this::onChange;
+
+    private volatile long seededVersion = Long.MAX_VALUE;    // nothing applies until seeded
+
+    // Versions above appliedThrough that are already counted; guarded by itself
+    private final Set<Long> appliedAhead = new HashSet<>();
+    private volatile long appliedThrough = -1;
+    private volatile Verification verification;
+
+    // ─── Wiring ───────────────────────────────────────────────────────────
+
+    /** Starts following {@code source}, seeding the counters from a full scan. */
+    public void attach(SnapshotIndex source) {
+        source.subscribe(feed);
+        seedLock.writeLock().lock();
+        try {
+            SnapshotIndex.Epoch epoch = source.current();
+            Totals seed = scan(epoch);
+
+            snapshots.reset();
+            healthSum.reset();
+            foodSum.reset();
+            xpLevelSum.reset();
+            perWorld.clear();
+            perGamemode.clear();
+            perHour.clear();
+
+            snapshots.add(seed.snapshots());
+            healthSum.add(seed.healthSum());
+            foodSum.add(seed.foodSum());
+            xpLevelSum.add(seed.xpLevelSum());
+            seed.perWorld().forEach((k, v) -> counter(perWorld, k).add(v));
+            seed.perGamemode().forEach((k, v) -> counter(perGamemode, k).add(v));
+            seed.perHour().forEach((k, v) -> counter(perHour, k).add(v));
+
+            seededVersion = epoch.version();
+            synchronized (appliedAhead) {
+                appliedAhead.clear();
+                appliedThrough = epoch.version();
+            }
+        } finally {
+            seedLock.writeLock().unlock();
+        }
+    }
+
+    public void detach(SnapshotIndex source) {
+        source.unsubscribe(feed);
+    }
+
+    private void onChange(SnapshotIndex.Change change) {
+        seedLock.readLock().lock();
+        try {
+            if (change.epoch().version() <= seededVersion) return;   // already in the seed
+
+            for (DemoData.DemoPlayer p : change.addedPlayers()) {
+                for (DemoData.DemoSnapshot s : p.snapshots()) add(s);
+            }
+            for (SnapshotIndex.AddedSnapshot added : change.addedSnapshots()) add(added.snapshot());
+            markApplied(change.epoch().version());
+        } finally {
+            seedLock.readLock().unlock();
+        }
+    }
+
+    /** Records a fully counted version and advances appliedThrough past any gap it closes. */
+    private void markApplied(long version) {
+        synchronized (appliedAhead) {
+            if (version <= appliedThrough) return;
+            appliedAhead.add(version);
+            long next = appliedThrough;
+            while (appliedAhead.remove(next + 1)) next++;
+            appliedThrough = next;
+        }
+    }
+
+    private void add(DemoData.DemoSnapshot s) {
+        snapshots.increment();
+        healthSum.add(health(s));
+        foodSum.add(s.food());
+        xpLevelSum.add(s.xpLevel());
+        counter(perWorld, SpatialIndex.worldKey(s.serverName(), s.worldName())).increment();
+        counter(perGamemode, s.gamemode()).increment();
+        counter(perHour, s.epochSecond() / 3600).increment();
+    }
+
+    private static long health(DemoData.DemoSnapshot s) {
+        return Math.round(s.health() * HEALTH_SCALE);
+    }
+
+    private static <K> LongAdder counter(Map<K, LongAdder> map, K key) {
+        LongAdder c = map.get(key);
+        return c != null ? c : map.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    // ─── Reads ────────────────────────────────────────────────────────────
+
+    public long snapshots()          { return snapshots.sum(); }
+    public double averageHealth()    { long n = snapshots.sum(); return n == 0 ? 0 : (double) healthSum.sum() / HEALTH_SCALE / n; }
+    public double averageFood()      { long n = snapshots.sum(); return n == 0 ? 0 : (double) foodSum.sum()    / n; }
+    public double averageXpLevel()   { long n = snapshots.sum(); return n == 0 ? 0 : (double) xpLevelSum.sum() / n; }
+
+    public Map<String, Long> perWorld()    { return sums(perWorld); }
+    public Map<String, Long> perGamemode() { return sums(perGamemode); }
+
+    /** Snapshots saved in the {@code hours} clock hours up to and including the one containing {@code epochSecond}. */
+    public long savedInHours(long epochSecond, int hours) {
+        long last = epochSecond / 3600, total = 0;
+        for (long h = last - hours + 1; h <= last; h++) {
+            LongAdder c = perHour.get(h);
+            if (c != null) total += c.sum();
+        }
+        return total;
+    }
+
+    /** Every epoch up to this version is fully counted; -1 before the first attach(). */
+    public long appliedThrough() {
+        return appliedThrough;
+    }
+
+    /** Everything the counters hold, including the full per-hour history. */
+    public Totals totals() {
+        return new Totals(snapshots.sum(), perWorld(), perGamemode(), sums(perHour),
+            healthSum.sum(), foodSum.sum(), xpLevelSum.sum());
+    }
+
+    private static <K> Map<K, Long> sums(Map<K, LongAdder> counters) {
+        Map<K, Long> out = new HashMap<>(counters.size() * 2);
+        counters.forEach((k, v) -> out.put(k, v.sum()));
+        return out;
+    }
+
+    // ─── Verification ─────────────────────────────────────────────────────
+
+    /** Last verification result, or null if none has been started. */
+    public Verification verification() {
+        return verification;
+    }
+
+    /**
+     * Rescans {@code source}'s current epoch on the common fork-join pool and
+     * compares it with the counters. Ignored if a scan is already running.
+     */
+    public void verifyAsync(SnapshotIndex source) {
+        Verification last = verification;
+        if (last != null && last.running()) return;
+        verification = new Verification(true, 0, 0, false, false, 0);
+
+        ForkJoinPool.commonPool().execute(() -> {
+            long start = System.nanoTime();
+            SnapshotIndex.Epoch epoch = source.current();
+            Totals scanned = scan(epoch);
+            // Settled: everything up to the scanned epoch was counted before the
+            // totals were read, and nothing newer was published by the end of the
+            // read (a publish is visible before its counts land, so this also
+            // rules out a half-applied newer epoch). Then any difference is real.
+            long applied = appliedThrough;
+            Totals live = totals();
+            boolean settled = applied == epoch.version() && source.current().version() == epoch.version();
+            verification = new Verification(false, epoch.version(), applied, settled && scanned.equals(live), settled,
+                System.nanoTime() - start);
+        });
+    }
+
+    // ─── Fork-join scan ───────────────────────────────────────────────────
+
+    /** Recomputes every total from scratch, splitting the roster across the common pool. */
+    public static Totals scan(SnapshotIndex.Epoch epoch) {
+        return ForkJoinPool.commonPool().invoke(new ScanTask(epoch.players(), 0, epoch.playerCount())).toTotals();
+    }
+
+    private static final class ScanTask extends RecursiveTask<Tally> {
+
+        private final List<DemoData.DemoPlayer> players;
+        private final int from, to;
+
+        ScanTask(List<DemoData.DemoPlayer> players, int from, int to) {
+            this.players = players;
+            this.from    = from;
+            this.to      = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from <= SCAN_THRESHOLD) {
+                Tally t = new Tally();
+                for (int i = from; i < to; i++) {
+                    for (DemoData.DemoSnapshot s : players.get(i).snapshots()) t.add(s);
+                }
+                return t;
+            }
+            int mid = (from + to) >>> 1;
+            ScanTask left = new ScanTask(players, from, mid);
+            left.fork();
+            Tally right = new ScanTask(players, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /** Single-threaded accumulator for one scan leaf. */
+    private static final class Tally {
+
+        long snapshots, healthSum, foodSum, xpLevelSum;
+        final Map<String, Long> perWorld    = new HashMap<>();
+        final Map<String, Long> perGamemode = new HashMap<>();
+        final Map<Long, Long>   perHour     = new HashMap<>();
+
+        void add(DemoData.DemoSnapshot s) {
+            snapshots++;
+            healthSum  += health(s);
+            foodSum    += s.food();
+            xpLevelSum += s.xpLevel();
+            perWorld.merge(SpatialIndex.worldKey(s.serverName(), s.worldName()), 1L, Long::sum);
+            perGamemode.merge(s.gamemode(), 1L, Long::sum);
+            perHour.merge(s.epochSecond() / 3600, 1L, Long::sum);
+        }
+
+        Tally merge(Tally o) {
+            snapshots  += o.snapshots;
+            healthSum  += o.healthSum;
+            foodSum    += o.foodSum;
+            xpLevelSum += o.xpLevelSum;
+            o.perWorld.forEach((k, v) -> perWorld.merge(k, v, Long::sum));
+            o.perGamemode.forEach((k, v) -> perGamemode.merge(k, v, Long::sum));
+            o.perHour.forEach((k, v) -> perHour.merge(k, v, Long::sum));
+            return this;
+        }
+
+        Totals toTotals() {
+            return new Totals(snapshots, perWorld, perGamemode, perHour, healthSum, foodSum, xpLevelSum);
+        }
+    }
+}
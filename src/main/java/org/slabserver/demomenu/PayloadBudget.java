@@ -0,0 +1,117 @@
+package org.slabserver.demomenu;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps each DemoScreen's serialized size under a byte budget.
+ *
+ * Every screen is first run through ComponentOptimizer. If it is still over
+ * budget, button tooltips are simplified one level at a time until it fits:
+ *
+ *   level 0  optimized only
+ *   level 1  tooltips flattened to unstyled plain text
+ *   level 2  tooltips cut to their first line
+ *   level 3  tooltips removed
+ *
+ * Labels, titles and body text are never simplified — they are the screen.
+ * If a screen is still over budget at level 3 it is sent anyway and counted.
+ *
+ * Sizes are the UTF-8 JSON size of every component plus each action key,
+ * which tracks the real dialog packet closely enough to budget against.
+ *
+ * The budget defaults to the demomenu.dialogByteBudget system property.
+ */
+public final class PayloadBudget {
+
+    public static final int DEFAULT_BUDGET = Integer.getInteger("demomenu.dialogByteBudget", 16 * 1024);
+
+    /** Rough fixed cost per button for width, action type and framing. */
+    private static final int BUTTON_OVERHEAD = 32;
+
+    private static final PlainTextComponentSerializer PLAIN = PlainTextComponentSerializer.plainText();
+
+    private final int budget;
+
+    private final LongAdder screens     = new LongAdder();
+    private final LongAdder bytesBefore = new LongAdder();
+    private final LongAdder bytesAfter  = new LongAdder();
+    private final LongAdder simplified  = new LongAdder();
+    private final LongAdder overBudget  = new LongAdder();
+
+    public PayloadBudget(int budget) {
+        this.budget = budget;
+    }
+
+    public int budget() {
+        return budget;
+    }
+
+    // ─── Fitting ──────────────────────────────────────────────────────────
+
+    /** Optimizes the screen and simplifies tooltips until it fits the budget. */
+    public DemoScreen fit(DemoScreen screen) {
+        int before = measure(screen);
+
+        DemoScreen out = screen.map(ComponentOptimizer::optimize, ComponentOptimizer::optimize);
+        int after = measure(out);
+
+        for (int level = 1; after > budget && level <= 3; level++) {
+            out   = simplifyTooltips(out, level);
+            after = measure(out);
+            if (level == 1) simplified.increment();
+        }
+
+        screens.increment();
+        bytesBefore.add(before);
+        bytesAfter.add(after);
+        if (after > budget) overBudget.increment();
+        return out;
+    }
+
+    private static DemoScreen simplifyTooltips(DemoScreen screen, int level) {
+        UnaryOperator<Component> tooltip = switch (level) {
+            case 1  -> t -> t == null ? null : Component.text(PLAIN.serialize(t));
+            case 2  -> t -> t == null ? null : Component.text(PLAIN.serialize(t).lines().findFirst().orElse(""));
+            default -> t -> null;
+        };
+        return screen.map(UnaryOperator.identity(), tooltip);
+    }
+
+    /** Estimated serialized size of the screen in bytes. */
+    public static int measure(DemoScreen screen) {
+        int size = ComponentOptimizer.serializedSize(screen.title());
+        for (Component line : screen.body()) size += ComponentOptimizer.serializedSize(line);
+        for (DemoScreen.Button b : screen.buttons()) {
+            size += BUTTON_OVERHEAD
+                + ComponentOptimizer.serializedSize(b.label())
+                + ComponentOptimizer.serializedSize(b.tooltip())
+                + (b.action() == null ? 0 : b.action().asString().length());
+        }
+        return size;
+    }
+
+    // ─── Metrics ──────────────────────────────────────────────────────────
+
+    /**
+     * @param screens     screens fitted
+     * @param bytesBefore total size as built
+     * @param bytesAfter  total size as sent
+     * @param simplified  screens that needed tooltip simplification
+     * @param overBudget  screens still over budget after every level
+     */
+    public record Stats(long screens, long bytesBefore, long bytesAfter, long simplified, long overBudget) {
+
+        /** Fraction of bytes saved, 0–1. */
+        public double savedRatio() {
+            return bytesBefore == 0 ? 0 : 1.0 - (double) bytesAfter / bytesBefore;
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(screens.sum(), bytesBefore.sum(), bytesAfter.sum(), simplified.sum(), overBudget.sum());
+    }
+}
@@ -0,0 +1,198 @@
+package org.slabserver.demomenu;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Open-addressing hash map from a UUID's two longs to a compact int id.
+ * No Paper API imports.
+ *
+ * Keys are stored unboxed in parallel long arrays and probed linearly, so a
+ * lookup allocates nothing — not even a UUID, since callers can pass the
+ * most/least significant bits parsed straight out of a navigation key.
+ *
+ * ─── Sharing ────────────────────────────────────────────────────────────────
+ *
+ * The table is split into SHARDS independent sub-tables, picked by the top
+ * bits of the hash. copy() clones only the shard array; a shard is copied
+ * the first time the new map writes to it. Adding one player to a map of
+ * N therefore costs O(SHARDS + N / SHARDS), not O(N).
+ *
+ * Not thread-safe for writes. SnapshotIndex only mutates a private copy while
+ * building an epoch; once the epoch is published the map is read-only. A map
+ * that has been copied must not be written to again, since it still shares
+ * its shards with the copy.
+ *
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+public final class PlayerIdMap {
+
+    /** Returned by get() when the UUID is not mapped. */
+    public static final int MISSING = -1;
+
+    static final int SHARD_BITS = 10;               // 1024 shards
+    static final int SHARDS     = 1 << SHARD_BITS;
+
+    private final Object  owner = new Object();     // shards this map may write in place
+    private final Shard[] shards;                   // null marks an empty shard
+    private final int     shardCapacity;            // initial capacity of a new shard
+    private int size;
+
+    public PlayerIdMap(int expected) {
+        this.shards        = new Shard[SHARDS];
+        this.shardCapacity = capacityFor(expected / SHARDS);
+    }
+
+    private PlayerIdMap(PlayerIdMap other) {
+        this.shards        = other.shards.clone();
+        this.shardCapacity = other.shardCapacity;
+        this.size          = other.size;
+    }
+
+    /** Copy-on-write copy; see the class comment. O(SHARDS). */
+    public PlayerIdMap copy() {
+        return new PlayerIdMap(this);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Whether both maps still hold the same storage for this UUID's shard. For tests. */
+    boolean sharesShard(PlayerIdMap other, UUID uuid) {
+        int s = shard(hash(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+        return shards[s] == other.shards[s];
+    }
+
+    // ─── Lookup ───────────────────────────────────────────────────────────
+
+    public int get(UUID uuid) {
+        return get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /** Compact id for the UUID, or {@link #MISSING}. */
+    public int get(long most, long least) {
+        long h = hash(most, least);
+        Shard s = shards[shard(h)];
+        return s == null ? MISSING : s.get(most, least, h);
+    }
+
+    // ─── Update ───────────────────────────────────────────────────────────
+
+    public void put(UUID uuid, int id) {
+        put(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), id);
+    }
+
+    /** Maps the UUID to {@code id}, replacing any previous mapping. */
+    public void put(long most, long least, int id) {
+        if (id < 0) throw new IllegalArgumentException("id must be non-negative: " + id);
+        long h = hash(most, least);
+        int  i = shard(h);
+        Shard s = shards[i];
+        if (s == null)             s = shards[i] = new Shard(owner, shardCapacity);
+        else if (s.owner != owner) s = shards[i] = s.copy(owner);
+        if (s.put(most, least, h, id)) size++;
+    }
+
+    // ─── Shard ────────────────────────────────────────────────────────────
+
+    /** One open-addressing sub-table. Written only by the map that owns it. */
+    private static final class Shard {
+
+        final Object owner;
+        long[] msb;
+        long[] lsb;
+        int[]  ids;   // MISSING marks an empty slot
+        int    size;
+
+        Shard(Object owner, int capacity) {
+            this.owner = owner;
+            allocate(capacity);
+        }
+
+        private Shard(Object owner, Shard other) {
+            this.owner = owner;
+            this.msb   = other.msb.clone();
+            this.lsb   = other.lsb.clone();
+            this.ids   = other.ids.clone();
+            this.size  = other.size;
+        }
+
+        Shard copy(Object newOwner) {
+            return new Shard(newOwner, this);
+        }
+
+        int get(long most, long least, long h) {
+            int mask = ids.length - 1;
+            for (int i = (int) h & mask; ; i = (i + 1) & mask) {
+                int id = ids[i];
+                if (id == MISSING) return MISSING;
+                if (msb[i] == most && lsb[i] == least) return id;
+            }
+        }
+
+        /** @return true if a new slot was used, false if an existing key was overwritten */
+        boolean put(long most, long least, long h, int id) {
+            if ((size + 1) * 2 > ids.length) rehash(ids.length * 2);
+            if (!insert(most, least, h, id)) return false;
+            size++;
+            return true;
+        }
+
+        private boolean insert(long most, long least, long h, int id) {
+            int mask = ids.length - 1;
+            for (int i = (int) h & mask; ; i = (i + 1) & mask) {
+                if (ids[i] == MISSING) {
+                    msb[i] = most;
+                    lsb[i] = least;
+                    ids[i] = id;
+                    return true;
+                }
+                if (msb[i] == most && lsb[i] == least) {
+                    ids[i] = id;
+                    return false;
+                }
+            }
+        }
+
+        private void rehash(int capacity) {
+            long[] oldMsb = msb, oldLsb = lsb;
+            int[]  oldIds = ids;
+            allocate(capacity);
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != MISSING) insert(oldMsb[i], oldLsb[i], hash(oldMsb[i], oldLsb[i]), oldIds[i]);
+            }
+        }
+
+        private void allocate(int capacity) {
+            msb = new long[capacity];
+            lsb = new long[capacity];
+            ids = new int[capacity];
+            Arrays.fill(ids, MISSING);
+        }
+    }
+
+    // ─── Hashing ──────────────────────────────────────────────────────────
+
+    /** Power of two, at most half full for the expected size. */
+    private static int capacityFor(int expected) {
+        int needed = Math.max(8, expected * 2);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    /** Top bits pick the shard; the low bits pick the slot inside it. */
+    private static int shard(long h) {
+        return (int) (h >>> (64 - SHARD_BITS));
+    }
+
+    /** MurmurHash3 fmix64 over both halves, so every UUID bit affects the slot. */
+    private static long hash(long most, long least) {
+        long h = most * 0x9E3779B97F4A7C15L ^ least;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
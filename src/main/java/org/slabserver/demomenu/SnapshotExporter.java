@@ -0,0 +1,289 @@
+package org.slabserver.demomenu;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Streams snapshot history out of a SnapshotIndex epoch as NDJSON or CSV.
+ * No Paper API imports — the command glue lives in MenuDemoPlugin.
+ *
+ * The epoch is immutable, so an export sees one consistent roster while
+ * writers keep publishing. Players are scanned in chunks of CHUNK_PLAYERS;
+ * each matching snapshot is formatted into a reused StringBuilder, encoded
+ * straight into a direct ByteBuffer and written to a FileChannel. Nothing
+ * proportional to the result size is ever held in memory.
+ *
+ * Output goes to a temp file next to the target and is moved into place
+ * when complete, so a half-written export is never visible under its name.
+ */
+public final class SnapshotExporter {
+
+    static final int CHUNK_PLAYERS = 1024;
+
+    private static final int BUFFER_BYTES    = 64 * 1024;
+    private static final int FLUSH_AT_CHARS  = 16 * 1024;
+
+    private static final String CSV_HEADER =
+        "player,uuid,snapshot_id,server,world,x,y,z,health,food,xp_level,xp_percent,"
+            + "gamemode,vehicle,inventory_count,ender_chest_count,inventory_hash,ender_chest_hash,epoch_second\n";
+
+    private SnapshotExporter() {}
+
+    // ─── Options ──────────────────────────────────────────────────────────
+
+    public enum Format {
+        NDJSON("ndjson"),
+        CSV("csv");
+
+        private final String id;
+
+        Format(String id) {
+            this.id = id;
+        }
+
+        /** Lower-case name, also used as the file extension. */
+        public String id() {
+            return id;
+        }
+
+        /** Format by id, or null. */
+        public static Format parse(String id) {
+            for (Format f : values()) if (f.id.equalsIgnoreCase(id)) return f;
+            return null;
+        }
+    }
+
+    /** Which snapshots to export. */
+    public sealed interface Scope {
+
+        /** Cheap pre-filter so whole histories can be skipped. */
+        default boolean includes(DemoData.DemoPlayer player) { return true; }
+
+        boolean includes(DemoData.DemoSnapshot snapshot);
+
+        /** File-name-safe description, e.g. "server-survival". */
+        String slug();
+
+        record OfPlayer(String name) implements Scope {
+            @Override public boolean includes(DemoData.DemoPlayer p)   { return p.name().equalsIgnoreCase(name); }
+            @Override public boolean includes(DemoData.DemoSnapshot s) { return true; }
+            @Override public String slug()                             { return "player-" + safe(name); }
+        }
+
+        record OfServer(String server) implements Scope {
+            @Override public boolean includes(DemoData.DemoSnapshot s) { return s.serverName().equalsIgnoreCase(server); }
+            @Override public String slug()                             { return "server-" + safe(server); }
+        }
+
+        /** Snapshots saved in [fromEpochSecond, toEpochSecond]. */
+        record InRange(long fromEpochSecond, long toEpochSecond) implements Scope {
+            @Override public boolean includes(DemoData.DemoSnapshot s) {
+                return s.epochSecond() >= fromEpochSecond && s.epochSecond() <= toEpochSecond;
+            }
+            @Override public String slug() { return "range-" + fromEpochSecond + "-" + toEpochSecond; }
+        }
+
+        private static String safe(String s) {
+            return s.replaceAll("[^A-Za-z0-9_.-]", "_");
+        }
+    }
+
+    /**
+     * @param playersScanned players looked at so far
+     * @param playersTotal   players in the epoch being exported
+     * @param rows           snapshot rows written so far
+     * @param elapsedNanos   time since the export started
+     */
+    public record Progress(long playersScanned, long playersTotal, long rows, long elapsedNanos) {
+
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+        }
+
+        public int percent() {
+            return playersTotal == 0 ? 100 : (int) (playersScanned * 100 / playersTotal);
+        }
+    }
+
+    // ─── Export ───────────────────────────────────────────────────────────
+
+    /**
+     * Writes every snapshot in {@code epoch} matched by {@code scope} to {@code target}.
+     * Blocking; call off the main thread.
+     *
+     * @param progress called after every chunk of players and once at the end
+     * @return final progress
+     */
+    public static Progress export(SnapshotIndex.Epoch epoch, Scope scope, Format format, Path target,
+                                  Consumer<Progress> progress) throws IOException {
+        long start = System.nanoTime();
+        List<DemoData.DemoPlayer> players = epoch.players();
+        long rows = 0;
+
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path tmp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".part");
+        try {
+            try (RowWriter out = new RowWriter(tmp)) {
+                if (format == Format.CSV) out.text().append(CSV_HEADER);
+
+                for (int from = 0; from < players.size(); from += CHUNK_PLAYERS) {
+                    int to = Math.min(from + CHUNK_PLAYERS, players.size());
+                    for (DemoData.DemoPlayer p : players.subList(from, to)) {
+                        if (!scope.includes(p)) continue;
+                        for (DemoData.DemoSnapshot s : p.snapshots()) {
+                            if (!scope.includes(s)) continue;
+                            if (format == Format.CSV) appendCsv(out.text(), p, s);
+                            else                      appendJson(out.text(), p, s);
+                            rows++;
+                            out.maybeFlush();
+                        }
+                    }
+                    progress.accept(new Progress(to, players.size(), rows, System.nanoTime() - start));
+                }
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+
+        Progress done = new Progress(players.size(), players.size(), rows, System.nanoTime() - start);
+        progress.accept(done);
+        return done;
+    }
+
+    // ─── Row formats ──────────────────────────────────────────────────────
+
+    private static void appendCsv(StringBuilder sb, DemoData.DemoPlayer p, DemoData.DemoSnapshot s) {
+        csv(sb, p.name()).append(',').append(p.uuid()).append(',').append(s.id()).append(',');
+        csv(sb, s.serverName()).append(',');
+        csv(sb, s.worldName()).append(',');
+        sb.append(s.x()).append(',').append(s.y()).append(',').append(s.z()).append(',')
+          .append(s.health()).append(',').append(s.food()).append(',')
+          .append(s.xpLevel()).append(',').append(s.xpPercent()).append(',');
+        csv(sb, s.gamemode()).append(',');
+        csv(sb, s.vehicle()).append(',');
+        sb.append(s.inventoryCount()).append(',').append(s.enderChestCount()).append(',');
+        if (s.inventoryHash()  != null) sb.append(s.inventoryHash());
+        sb.append(',');
+        if (s.enderChestHash() != null) sb.append(s.enderChestHash());
+        sb.append(',').append(s.epochSecond()).append('\n');
+    }
+
+    private static StringBuilder csv(StringBuilder sb, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return sb.append(value);
+        return sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void appendJson(StringBuilder sb, DemoData.DemoPlayer p, DemoData.DemoSnapshot s) {
+        sb.append("{\"player\":");           json(sb, p.name());
+        sb.append(",\"uuid\":\"").append(p.uuid()).append('"');
+        sb.append(",\"snapshotId\":").append(s.id());
+        sb.append(",\"server\":");           json(sb, s.serverName());
+        sb.append(",\"world\":");            json(sb, s.worldName());
+        sb.append(",\"x\":").append(s.x()).append(",\"y\":").append(s.y()).append(",\"z\":").append(s.z());
+        sb.append(",\"health\":").append(s.health());
+        sb.append(",\"food\":").append(s.food());
+        sb.append(",\"xpLevel\":").append(s.xpLevel());
+        sb.append(",\"xpPercent\":").append(s.xpPercent());
+        sb.append(",\"gamemode\":");         json(sb, s.gamemode());
+        sb.append(",\"vehicle\":");          json(sb, s.vehicle());
+        sb.append(",\"inventoryCount\":").append(s.inventoryCount());
+        sb.append(",\"enderChestCount\":").append(s.enderChestCount());
+        sb.append(",\"inventoryHash\":");    json(sb, s.inventoryHash());
+        sb.append(",\"enderChestHash\":");   json(sb, s.enderChestHash());
+        sb.append(",\"epochSecond\":").append(s.epochSecond());
+        sb.append("}\n");
+    }
+
+    private static void json(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"'  -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default   -> {
+                    if (c < 0x20) sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    else          sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    // ─── Buffered channel writer ──────────────────────────────────────────
+
+    /** StringBuilder → UTF-8 → direct ByteBuffer → FileChannel, all buffers reused. */
+    private static final class RowWriter implements Closeable {
+
+        private final FileChannel    channel;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final ByteBuffer     bytes   = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private final StringBuilder  text    = new StringBuilder(FLUSH_AT_CHARS + 1024);
+
+        RowWriter(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        StringBuilder text() {
+            return text;
+        }
+
+        void maybeFlush() throws IOException {
+            if (text.length() >= FLUSH_AT_CHARS) encode(false);
+        }
+
+        private void encode(boolean endOfInput) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(text);
+            while (true) {
+                CoderResult result = encoder.encode(chars, bytes, endOfInput);
+                if (result.isOverflow()) {
+                    drain();
+                    continue;
+                }
+                if (result.isError()) result.throwException();
+                break;
+            }
+            // Anything left is half a surrogate pair; keep it for the next row
+            text.delete(0, text.length() - chars.remaining());
+        }
+
+        private void drain() throws IOException {
+            bytes.flip();
+            while (bytes.hasRemaining()) channel.write(bytes);
+            bytes.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                encode(true);
+                while (encoder.flush(bytes).isOverflow()) drain();
+                drain();
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package org.slabserver.demomenu;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Epoch-versioned player/snapshot index shared by every dialog screen.
+ * No Paper API imports — safe to use from any thread.
+ *
+ * ─── Concurrency model ──────────────────────────────────────────────────────
+ *
+ *   Readers  call current() once per screen build and work off the returned
+ *            Epoch. An Epoch is deeply immutable, so a reader never locks and
+ *            never sees a half-applied write, no matter what writers are doing.
+ *
+ *   Writers  stage changes in a Batch via publish(). The batch is applied
+ *            copy-on-write to the latest Epoch and swapped in with a single
+ *            compare-and-set. If another writer won the race, the batch is
+ *            simply re-applied to the newer Epoch — no locks on this side
+ *            either, and every change in a batch becomes visible atomically.
+ *
+ * Epoch versions increase by exactly one per publish that changed something,
+ * and every such publish is delivered to subscribers.
+ *
+ * Subscribers are told about every published batch with exactly the writes
+ * that took effect (see Change). They run on the writer's thread, after the
+ * epoch is visible, and may see batches from different writers out of order.
+ *
+ * Each epoch carries a PlayerIdMap from UUID to roster position. Positions
+ * never change once assigned, so the map is shared between epochs until a
+ * batch adds a player; that batch copies it copy-on-write, which shares
+ * every shard but the ones the new players hash to.
+ *
+ * The roster itself is a Roster: fixed-size chunks behind a spine array. A
+ * batch copies the spine plus only the chunks it writes to, so a publish
+ * costs O(N / CHUNK + CHUNK · chunks touched) instead of copying all N
+ * players.
+ *
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+public final class SnapshotIndex {
+
+    /** The index every screen reads from, seeded with the static demo data. */
+    public static final SnapshotIndex LIVE = new SnapshotIndex(DemoData.PLAYERS);
+
+    // ─── Epoch ────────────────────────────────────────────────────────────
+
+    /**
+     * One immutable, versioned view of the roster.
+     * Player order is stable across epochs; new players are appended.
+     * {@code ids} maps each UUID to its roster position and must not be mutated.
+     * {@code snapshotCount} is the total history length across the roster,
+     * kept up to date by every batch so readers never have to sum it.
+     */
+    public record Epoch(long version, List<DemoData.DemoPlayer> players, PlayerIdMap ids, long snapshotCount) {
+
+        public int playerCount() {
+            return players.size();
+        }
+
+        /** Roster position of the player, or PlayerIdMap.MISSING. Allocation-free. */
+        public int indexOf(long uuidMost, long uuidLeast) {
+            return ids.get(uuidMost, uuidLeast);
+        }
+
+        /** Player by UUID bits, or null if not tracked in this epoch. */
+        public DemoData.DemoPlayer player(long uuidMost, long uuidLeast) {
+            int idx = ids.get(uuidMost, uuidLeast);
+            return idx == PlayerIdMap.MISSING ? null : players.get(idx);
+        }
+    }
+
+    // ─── Change notifications ─────────────────────────────────────────────
+
+    /** A snapshot that a batch prepended to a player's history. */
+    public record AddedSnapshot(UUID player, DemoData.DemoSnapshot snapshot) {}
+
+    /**
+     * What one publish actually changed. Writes the batch skipped (unknown
+     * UUIDs, players already tracked) are not included.
+     */
+    public record Change(Epoch epoch, List<DemoData.DemoPlayer> addedPlayers, List<AddedSnapshot> addedSnapshots) {
+
+        public boolean rosterChanged() {
+            return !addedPlayers.isEmpty();
+        }
+    }
+
+    private final AtomicReference<Epoch> current;
+    private final List<Consumer<Change>> subscribers = new CopyOnWriteArrayList<>();
+
+    public SnapshotIndex(List<DemoData.DemoPlayer> seed) {
+        List<DemoData.DemoPlayer> players = Roster.of(seed);
+        PlayerIdMap ids = new PlayerIdMap(players.size());
+        long snapshots = 0;
+        for (int i = 0; i < players.size(); i++) {
+            ids.put(players.get(i).uuid(), i);
+            snapshots += players.get(i).snapshots().size();
+        }
+        this.current = new AtomicReference<>(new Epoch(0L, players, ids, snapshots));
+    }
+
+    /** Registers a callback for every publish that changed something. */
+    public void subscribe(Consumer<Change> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Consumer<Change> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /** Latest published epoch. Lock-free; never blocks on writers. */
+    public Epoch current() {
+        return current.get();
+    }
+
+    // ─── Writes ───────────────────────────────────────────────────────────
+
+    /**
+     * Stages writes into a batch and publishes them as a single new epoch.
+     * Returns the epoch the batch landed in, or the current one if the
+     * batch was empty or every write in it was skipped; such a batch
+     * publishes nothing, so versions only move when data does.
+     */
+    public Epoch publish(Consumer<Batch> writes) {
+        Batch batch = new Batch();
+        writes.accept(batch);
+        if (batch.ops.isEmpty()) return current.get();
+
+        while (true) {
+            Epoch base = current.get();
+            Epoch next = batch.applyTo(base);
+            if (next == base) return base;              // nothing applied
+            if (current.compareAndSet(base, next)) {
+                notify(batch, next);
+                return next;
+            }
+        }
+    }
+
+    private void notify(Batch batch, Epoch next) {
+        if (subscribers.isEmpty()) return;
+
+        Change change = new Change(next, List.copyOf(batch.appliedPlayers), List.copyOf(batch.appliedSnapshots));
+        for (Consumer<Change> subscriber : subscribers) subscriber.accept(change);
+    }
+
+    /** Convenience for the common single-write case. */
+    public Epoch addSnapshot(UUID player, DemoData.DemoSnapshot snapshot) {
+        return publish(b -> b.addSnapshot(player, snapshot));
+    }
+
+    /**
+     * Ordered list of pending writes. Only valid inside the publish() callback;
+     * it may be applied more than once if the CAS has to retry, so ops must
+     * stay side-effect free.
+     */
+    public static final class Batch {
+
+        private sealed interface Op permits AddPlayer, AddSnapshot {}
+        private record AddPlayer(DemoData.DemoPlayer player)                 implements Op {}
+        private record AddSnapshot(UUID player, DemoData.DemoSnapshot snap)  implements Op {}
+
+        private final List<Op> ops = new ArrayList<>();
+
+        // What the last applyTo() actually did; reset on every CAS retry
+        private final List<DemoData.DemoPlayer> appliedPlayers   = new ArrayList<>();
+        private final List<AddedSnapshot>       appliedSnapshots = new ArrayList<>();
+
+        private Batch() {}
+
+        /** Appends a player to the roster. Ignored if the UUID is already tracked. */
+        public Batch addPlayer(DemoData.DemoPlayer player) {
+            ops.add(new AddPlayer(player));
+            return this;
+        }
+
+        /** Prepends a snapshot to a player's history (most recent first). Unknown UUIDs are ignored. */
+        public Batch addSnapshot(UUID player, DemoData.DemoSnapshot snapshot) {
+            ops.add(new AddSnapshot(player, snapshot));
+            return this;
+        }
+
+        private Epoch applyTo(Epoch base) {
+            appliedPlayers.clear();
+            appliedSnapshots.clear();
+
+            Roster.Editor players = ((Roster) base.players()).edit();
+            PlayerIdMap ids = base.ids();
+            boolean idsCopied = false;
+            long snapshots = base.snapshotCount();
+
+            for (Op op : ops) {
+                switch (op) {
+                    case AddPlayer a -> {
+                        if (ids.get(a.player().uuid()) != PlayerIdMap.MISSING) continue;
+                        if (!idsCopied) {
+                            ids = ids.copy();
+                            idsCopied = true;
+                        }
+                        ids.put(a.player().uuid(), players.size());
+                        players.add(a.player());
+                        snapshots += a.player().snapshots().size();
+                        appliedPlayers.add(a.player());
+                    }
+                    case AddSnapshot a -> {
+                        int pos = ids.get(a.player());
+                        if (pos == PlayerIdMap.MISSING) continue;
+                        DemoData.DemoPlayer p = players.get(pos);
+                        var snaps = new ArrayList<DemoData.DemoSnapshot>(p.snapshots().size() + 1);
+                        snaps.add(a.snap());
+                        snaps.addAll(p.snapshots());
+                        players.set(pos, new DemoData.DemoPlayer(p.name(), p.uuid(), Collections.unmodifiableList(snaps)));
+                        snapshots++;
+                        appliedSnapshots.add(new AddedSnapshot(a.player(), a.snap()));
+                    }
+                }
+            }
+            if (appliedPlayers.isEmpty() && appliedSnapshots.isEmpty()) return base;
+            return new Epoch(base.version() + 1, players.build(), ids, snapshots);
+        }
+    }
+
+    // ─── Roster ───────────────────────────────────────────────────────────
+
+    /**
+     * Immutable player list split into CHUNK-sized arrays. Epochs share every
+     * chunk a batch did not write to; see Editor.
+     */
+    static final class Roster extends AbstractList<DemoData.DemoPlayer> implements RandomAccess {
+
+        static final int CHUNK_SHIFT = 10;              // 1024 players per chunk
+        static final int CHUNK       = 1 << CHUNK_SHIFT;
+        private static final int MASK = CHUNK - 1;
+
+        private final DemoData.DemoPlayer[][] chunks;
+        private final int size;
+
+        private Roster(DemoData.DemoPlayer[][] chunks, int size) {
+            this.chunks = chunks;
+            this.size   = size;
+        }
+
+        static Roster of(List<DemoData.DemoPlayer> players) {
+            Editor e = new Roster(new DemoData.DemoPlayer[0][], 0).edit();
+            for (DemoData.DemoPlayer p : players) e.add(Objects.requireNonNull(p));
+            return e.build();
+        }
+
+        @Override
+        public DemoData.DemoPlayer get(int index) {
+            Objects.checkIndex(index, size);
+            return chunks[index >>> CHUNK_SHIFT][index & MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /** Starts a copy-on-write edit; this roster is never modified. */
+        Editor edit() {
+            return new Editor(chunks, size);
+        }
+
+        /**
+         * Copies the spine up front and each chunk the first time it is
+         * written. Single use: build() hands the arrays to the new Roster.
+         */
+        static final class Editor {
+
+            private DemoData.DemoPlayer[][] chunks;
+            private boolean[] owned;
+            private int size;
+
+            private Editor(DemoData.DemoPlayer[][] base, int size) {
+                this.chunks = base.clone();
+                this.owned  = new boolean[chunks.length];
+                this.size   = size;
+            }
+
+            int size() {
+                return size;
+            }
+
+            DemoData.DemoPlayer get(int index) {
+                return chunks[index >>> CHUNK_SHIFT][index & MASK];
+            }
+
+            void set(int index, DemoData.DemoPlayer player) {
+                own(index >>> CHUNK_SHIFT)[index & MASK] = player;
+            }
+
+            void add(DemoData.DemoPlayer player) {
+                int c = size >>> CHUNK_SHIFT;
+                if (c == chunks.length) {
+                    chunks = Arrays.copyOf(chunks, Math.max(4, c * 2));
+                    owned  = Arrays.copyOf(owned, chunks.length);
+                }
+                if (chunks[c] == null) {
+                    chunks[c] = new DemoData.DemoPlayer[CHUNK];
+                    owned[c]  = true;
+                }
+                own(c)[size & MASK] = player;
+                size++;
+            }
+
+            // The tail chunk is shared too: slots past an old roster's size
+            // are never read through it, but they are written here, so it is
+            // copied like any other.
+            private DemoData.DemoPlayer[] own(int c) {
+                if (!owned[c]) {
+                    chunks[c] = chunks[c].clone();
+                    owned[c]  = true;
+                }
+                return chunks[c];
+            }
+
+            Roster build() {
+                Roster r = new Roster(chunks, size);
+                chunks = null;
+                return r;
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.slabserver.demomenu;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * "Who was near here" index over snapshot locations, one grid per world.
+ * No Paper API imports — pure Java.
+ *
+ * ─── Layout ─────────────────────────────────────────────────────────────────
+ *
+ *   worlds:  "server/world" ──▶ cells:  packed (cx, cz) ──▶ Cell [entry, entry, …]
+ *
+ * Cells are CELL_SIZE × CELL_SIZE columns over x/z; y is checked per entry.
+ * A radius query visits only the cells its bounding square overlaps, so the
+ * cost follows the area searched and the density there, not the total
+ * number of snapshots.
+ *
+ * ─── Maintenance ────────────────────────────────────────────────────────────
+ *
+ * attach() subscribes to a SnapshotIndex and then seeds from its current
+ * epoch; every later Change appends its snapshots. Changes from epochs the
+ * seed already covered are skipped, so nothing is indexed twice however the
+ * two race. Writes take the index lock; queries never block.
+ *
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+public final class SpatialIndex {
+
+    static final int CELL_SHIFT = 5;                // 32-block cells
+    static final int CELL_SIZE  = 1 << CELL_SHIFT;
+
+    public static final int MAX_RADIUS = 256;
+
+    /** One indexed snapshot, with the owner it belongs to. */
+    public record Entry(UUID player, String playerName, DemoData.DemoSnapshot snapshot) {}
+
+    /** A match, with its horizontal distance from the query point. */
+    public record Hit(Entry entry, double distance) {}
+
+    /**
+     * @param verticalRange how far above or below {@code y} a snapshot may be
+     */
+    public record Query(String server, String world, int x, int y, int z, int radius, int verticalRange) {}
+
+    /**
+     * @param hits     closest matches first, at most the requested limit
+     * @param matched  matches before the limit was applied
+     * @param examined entries looked at in the visited cells
+     */
+    public record Result(List<Hit> hits, int matched, int examined) {}
+
+    private final Map<String, Map<Long, Cell>> worlds = new ConcurrentHashMap<>();
+    private final Consumer<SnapshotIndex.Change> feed = this::onChange;
+
+    private long seededVersion = Long.MAX_VALUE;    // nothing applies until seeded
+    private volatile int size;
+
+    // ─── Wiring ───────────────────────────────────────────────────────────
+
+    /** Starts following {@code source}, replacing anything indexed before. */
+    public void attach(SnapshotIndex source) {
+        source.subscribe(feed);
+        synchronized (this) {
+            worlds.clear();
+            size = 0;
+            SnapshotIndex.Epoch epoch = source.current();
+            for (DemoData.DemoPlayer p : epoch.players()) addAll(p);
+            seededVersion = epoch.version();
+        }
+    }
+
+    public void detach(SnapshotIndex source) {
+        source.unsubscribe(feed);
+    }
+
+    private synchronized void onChange(SnapshotIndex.Change change) {
+        if (change.epoch().version() <= seededVersion) return;   // already in the seed
+
+        for (DemoData.DemoPlayer p : change.addedPlayers()) addAll(p);
+        for (SnapshotIndex.AddedSnapshot added : change.addedSnapshots()) {
+            DemoData.DemoPlayer p = change.epoch().player(
+                added.player().getMostSignificantBits(), added.player().getLeastSignificantBits());
+            add(new Entry(added.player(), p == null ? "?" : p.name(), added.snapshot()));
+        }
+    }
+
+    private void addAll(DemoData.DemoPlayer p) {
+        for (DemoData.DemoSnapshot s : p.snapshots()) add(new Entry(p.uuid(), p.name(), s));
+    }
+
+    /** Caller holds the index lock. */
+    private void add(Entry e) {
+        DemoData.DemoSnapshot s = e.snapshot();
+        worlds.computeIfAbsent(worldKey(s.serverName(), s.worldName()), k -> new ConcurrentHashMap<>())
+              .computeIfAbsent(cellKey(s.x() >> CELL_SHIFT, s.z() >> CELL_SHIFT), k -> new Cell())
+              .add(e);
+        size++;
+    }
+
+    // ─── Queries ──────────────────────────────────────────────────────────
+
+    /** Snapshots within the query's cylinder, closest first, at most {@code limit}. */
+    public Result near(Query q, int limit) {
+        Map<Long, Cell> cells = worlds.get(worldKey(q.server(), q.world()));
+        if (cells == null) return new Result(List.of(), 0, 0);
+
+        int r = Math.min(Math.max(q.radius(), 0), MAX_RADIUS);
+        long r2 = (long) r * r;
+        List<Hit> hits = new ArrayList<>();
+        int examined = 0;
+
+        for (int cx = (q.x() - r) >> CELL_SHIFT; cx <= (q.x() + r) >> CELL_SHIFT; cx++) {
+            for (int cz = (q.z() - r) >> CELL_SHIFT; cz <= (q.z() + r) >> CELL_SHIFT; cz++) {
+                Cell cell = cells.get(cellKey(cx, cz));
+                if (cell == null) continue;
+
+                int n = cell.size;                  // size first, then items — see Cell
+                Entry[] items = cell.items;
+                examined += n;
+                for (int i = 0; i < n; i++) {
+                    DemoData.DemoSnapshot s = items[i].snapshot();
+                    if (Math.abs(s.y() - q.y()) > q.verticalRange()) continue;
+                    long dx = s.x() - q.x(), dz = s.z() - q.z();
+                    long d2 = dx * dx + dz * dz;
+                    if (d2 <= r2) hits.add(new Hit(items[i], Math.sqrt(d2)));
+                }
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::distance)
+            .thenComparingLong(h -> -h.entry().snapshot().epochSecond()));
+        int matched = hits.size();
+        return new Result(List.copyOf(hits.subList(0, Math.min(limit, matched))), matched, examined);
+    }
+
+    /** Every "server/world" that has at least one snapshot, sorted. */
+    public List<String> worlds() {
+        List<String> keys = new ArrayList<>(worlds.keySet());
+        keys.sort(null);
+        return keys;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    static String worldKey(String server, String world) {
+        return server + "/" + world;
+    }
+
+    private static long cellKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    // ─── Cell ─────────────────────────────────────────────────────────────
+
+    /**
+     * Append-only entry array. The single writer (index lock) stores the
+     * entry before bumping {@code size}; a reader that loads {@code size}
+     * first and {@code items} second sees at least that many entries, since
+     * a grown array is published only after the old one is copied into it.
+     */
+    private static final class Cell {
+
+        private volatile Entry[] items = new Entry[4];
+        private volatile int     size;
+
+        void add(Entry e) {
+            Entry[] a = items;
+            if (size == a.length) {
+                a = Arrays.copyOf(a, a.length * 2);
+                items = a;
+            }
+            a[size] = e;
+            size = size + 1;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.slabserver.demomenu;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for ComponentOptimizer and PayloadBudget.
+ */
+public class ComponentOptimizerTest
+    extends TestCase
+{
+    private static final PlainTextComponentSerializer PLAIN = PlainTextComponentSerializer.plainText();
+
+    public ComponentOptimizerTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( ComponentOptimizerTest.class );
+    }
+
+    public void testFlattensWrappersAndMergesSameStyleText()
+    {
+        Component tree = Component.empty()
+            .append( Component.text( "Health: ", NamedTextColor.GRAY ) )
+            .append( Component.empty()
+                .append( Component.text( "17", NamedTextColor.WHITE ) )
+                .append( Component.text( " / 20", NamedTextColor.WHITE ) ) )
+            .append( Component.text( "  │  ", NamedTextColor.GRAY ) );
+
+        Component out = ComponentOptimizer.optimize( tree );
+
+        assertEquals( PLAIN.serialize( tree ), PLAIN.serialize( out ) );
+        assertEquals( 3, out.children().size() );
+        assertTrue( ComponentOptimizer.serializedSize( out ) < ComponentOptimizer.serializedSize( tree ) );
+    }
+
+    public void testDropsInheritedColour()
+    {
+        Component tree = Component.text( "a", NamedTextColor.GRAY ).append( Component.text( "b", NamedTextColor.GRAY ) );
+
+        Component out = ComponentOptimizer.optimize( tree );
+
+        assertNull( out.children().get( 0 ).color() );
+        assertEquals( "ab", PLAIN.serialize( out ) );
+    }
+
+    public void testBudgetSimplifiesTooltipsOnlyWhenOver()
+    {
+        DemoScreen screen = screenWithTooltips( 40 );
+        int size = PayloadBudget.measure( screen );
+
+        PayloadBudget roomy = new PayloadBudget( size * 2 );
+        roomy.fit( screen );
+        assertEquals( 0L, roomy.stats().simplified() );
+
+        PayloadBudget tight = new PayloadBudget( size / 3 );
+        DemoScreen fitted = tight.fit( screen );
+        assertEquals( 1L, tight.stats().simplified() );
+        assertTrue( PayloadBudget.measure( fitted ) < size / 2 );
+        assertEquals( PLAIN.serialize( screen.buttons().get( 0 ).label() ),
+                      PLAIN.serialize( fitted.buttons().get( 0 ).label() ) );
+    }
+
+    private static DemoScreen screenWithTooltips( int buttons )
+    {
+        List<DemoScreen.Button> list = new ArrayList<>();
+        for ( int i = 0; i < buttons; i++ ) {
+            Component tooltip = Component.join( JoinConfiguration.newlines(),
+                Component.text( "Health:  ", NamedTextColor.GRAY ).append( Component.text( "20/20", NamedTextColor.GREEN ) ),
+                Component.text( "Food:    ", NamedTextColor.GRAY ).append( Component.text( "18/20", NamedTextColor.YELLOW ) ),
+                Component.text( "Mode:    ", NamedTextColor.GRAY ).append( Component.text( "SURVIVAL", NamedTextColor.WHITE ) ),
+                Component.text( "Click to view full details →", NamedTextColor.AQUA ) );
+            list.add( new DemoScreen.Button( Component.text( "#" + i, NamedTextColor.GRAY ), tooltip, 300,
+                Key.key( "psync", "snapshot/" + i ) ) );
+        }
+        return DemoScreen.multiAction( Component.text( "Budget test" ), List.of(), list );
+    }
+}
@@ -0,0 +1,81 @@
+package org.slabserver.demomenu;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Determinism, cache round-trip and distribution checks for DatasetGenerator.
+ */
+public class DatasetGeneratorTest
+    extends TestCase
+{
+    private static final DatasetGenerator.Spec SPEC = new DatasetGenerator.Spec( 20_000, 7L );
+
+    public DatasetGeneratorTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( DatasetGeneratorTest.class );
+    }
+
+    public void testSameSpecSameDataRegardlessOfSplit()
+    {
+        DatasetGenerator.Dataset parallel = DatasetGenerator.generate( SPEC );
+        System.out.println( "[dataset]   " + parallel.report().format() );
+
+        for ( int i : new int[] { 0, 1, 4095, 19_999 } ) {
+            assertEquals( DatasetGenerator.player( SPEC, i ), parallel.players().get( i ) );
+        }
+        assertFalse( parallel.players().equals( DatasetGenerator.generate( new DatasetGenerator.Spec( 20_000, 8L ) ).players() ) );
+    }
+
+    public void testCacheRoundTrip() throws Exception
+    {
+        Path dir = Files.createTempDirectory( "dataset-test" );
+        try {
+            DatasetGenerator.Dataset generated = DatasetGenerator.load( SPEC, dir );
+            DatasetGenerator.Dataset cached    = DatasetGenerator.load( SPEC, dir );
+            System.out.println( "[dataset]   " + cached.report().format() );
+
+            assertEquals( DatasetGenerator.Source.GENERATED, generated.report().source() );
+            assertEquals( DatasetGenerator.Source.CACHED, cached.report().source() );
+            assertEquals( generated.players(), cached.players() );
+            assertTrue( cached.report().fileBytes() > 0 );
+        } finally {
+            TestFiles.deleteTree( dir );
+        }
+    }
+
+    public void testHistoriesAreSkewedAndVaried()
+    {
+        DatasetGenerator.Dataset data = DatasetGenerator.generate( SPEC );
+
+        int[] lengths = data.players().stream().mapToInt( p -> p.snapshots().size() ).sorted().toArray();
+        int median = lengths[lengths.length / 2];
+        assertTrue( lengths[0] >= 1 );
+        assertTrue( median <= 3 );
+        assertTrue( lengths[lengths.length - 1] >= 50 * median );
+
+        Set<String> worlds = new HashSet<>();
+        for ( DemoData.DemoPlayer p : data.players() ) {
+            long previous = Long.MAX_VALUE;
+            for ( DemoData.DemoSnapshot s : p.snapshots() ) {
+                assertTrue( "newest first", s.epochSecond() < previous );
+                previous = s.epochSecond();
+                worlds.add( s.serverName() + "/" + s.worldName() );
+            }
+        }
+        assertTrue( worlds.size() > 8 );
+        assertTrue( Arrays.stream( lengths ).asLongStream().sum() == data.report().snapshots() );
+    }
+}
@@ -0,0 +1,138 @@
+package org.slabserver.demomenu;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+/**
+ * Round-trip and deduplication tests for InventoryBlobStore.
+ */
+public class InventoryBlobStoreTest
+    extends TestCase
+{
+    public InventoryBlobStoreTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( InventoryBlobStoreTest.class );
+    }
+
+    public void testRoundTripKeepsEmptySlots()
+    {
+        InventoryBlobStore store = InventoryBlobStore.inMemory();
+        byte[][] slots = inventory( "minecraft:stone x64", null, "minecraft:bow x1" );
+
+        byte[][] loaded = store.loadInventory( store.putInventory( slots ) );
+
+        assertEquals( 3, loaded.length );
+        assertTrue( Arrays.equals( slots[0], loaded[0] ) );
+        assertNull( loaded[1] );
+        assertTrue( Arrays.equals( slots[2], loaded[2] ) );
+    }
+
+    public void testCountStacksReadsOnlyTheManifest() throws Exception
+    {
+        Path dir = Files.createTempDirectory( "blobs" );
+        try {
+            String hash = InventoryBlobStore.open( dir )
+                .putInventory( inventory( "minecraft:stone x64", null, null, "minecraft:bow x1" ) );
+            try ( Stream<Path> files = Files.walk( dir ) ) {
+                // keep only the manifest, so any stack read would fail
+                files.filter( Files::isRegularFile )
+                     .filter( f -> !f.getFileName().toString().equals( hash ) )
+                     .forEach( f -> f.toFile().delete() );
+            }
+
+            assertEquals( 2, InventoryBlobStore.open( dir ).countStacks( hash ) );
+        } finally {
+            TestFiles.deleteTree( dir );
+        }
+    }
+
+    public void testIdenticalInventoriesAreStoredOnce()
+    {
+        InventoryBlobStore store = InventoryBlobStore.inMemory();
+
+        String first  = store.putInventory( inventory( "minecraft:stone x64", "minecraft:bow x1" ) );
+        long blobs    = store.stats().blobs();
+        String second = store.putInventory( inventory( "minecraft:stone x64", "minecraft:bow x1" ) );
+
+        assertEquals( first, second );
+        assertEquals( blobs, store.stats().blobs() );
+    }
+
+    public void testIdenticalStacksAreSharedAcrossInventories()
+    {
+        InventoryBlobStore store = InventoryBlobStore.inMemory();
+
+        store.putInventory( inventory( "minecraft:stone x64", "minecraft:bow x1" ) );
+        store.putInventory( inventory( "minecraft:bow x1", "minecraft:stone x64", "minecraft:torch x16" ) );
+
+        // three distinct stacks + two manifests; stone and bow reused by the second
+        assertEquals( 5L, store.stats().blobs() );
+        assertEquals( 2L, store.stats().dedupHits() );
+    }
+
+    public void testConcurrentPutsCountOneWrite() throws Exception
+    {
+        Path dir = Files.createTempDirectory( "blobs" );
+        try {
+            InventoryBlobStore store = InventoryBlobStore.open( dir );
+            byte[][] slots = inventory( "minecraft:elytra x1" );
+            CountDownLatch start = new CountDownLatch( 1 );
+            List<Thread> threads = new ArrayList<>();
+            for ( int i = 0; i < 8; i++ ) {
+                threads.add( new Thread( () -> {
+                    try {
+                        start.await();
+                    } catch ( InterruptedException e ) {
+                        Thread.currentThread().interrupt();
+                    }
+                    store.putInventory( slots );
+                } ) );
+            }
+            threads.forEach( Thread::start );
+            start.countDown();
+            for ( Thread t : threads ) t.join();
+
+            // one stack + one manifest, however the writers interleaved
+            assertEquals( 2L, store.stats().blobs() );
+            assertEquals( 14L, store.stats().dedupHits() );
+            try ( Stream<Path> files = Files.walk( dir ) ) {
+                assertEquals( 2L, files.filter( Files::isRegularFile ).count() );   // no temp files left
+            }
+        } finally {
+            TestFiles.deleteTree( dir );
+        }
+    }
+
+    public void testFileStoreSurvivesReopen() throws Exception
+    {
+        Path dir = Files.createTempDirectory( "blobs" );
+        try {
+            String hash = InventoryBlobStore.open( dir ).putInventory( inventory( "minecraft:torch x16" ) );
+            byte[][] loaded = InventoryBlobStore.open( dir ).loadInventory( hash );
+            assertEquals( "minecraft:torch x16", new String( loaded[0] ) );
+        } finally {
+            TestFiles.deleteTree( dir );
+        }
+    }
+
+    private static byte[][] inventory( String... stacks )
+    {
+        byte[][] slots = new byte[stacks.length][];
+        for ( int i = 0; i < stacks.length; i++ ) slots[i] = stacks[i] == null ? null : stacks[i].getBytes();
+        return slots;
+    }
+}
@@ -0,0 +1,125 @@
+package org.slabserver.demomenu;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Coalescing and fan-out tests for LiveRefresh.
+ */
+public class LiveRefreshTest
+    extends TestCase
+{
+    private static final UUID ALICE = UUID.nameUUIDFromBytes( "Alice".getBytes() );
+    private static final UUID BOB   = UUID.nameUUIDFromBytes( "Bob".getBytes() );
+
+    private final List<Key> rendered = new ArrayList<>();
+    private final List<Integer> fanouts = new ArrayList<>();
+    private LiveRefresh hub;
+
+    public LiveRefreshTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( LiveRefreshTest.class );
+    }
+
+    @Override
+    protected void setUp()
+    {
+        hub = new LiveRefresh(
+            screen -> {
+                rendered.add( screen );
+                return DemoScreen.notice( Component.text( screen.asString() ), List.of() );
+            },
+            change -> change.addedSnapshots().stream().map( a -> screenOf( a.player() ) ).toList(),
+            ( screen, viewers ) -> fanouts.add( viewers.size() ) );
+    }
+
+    public void testBurstOfChangesRendersOncePerTick()
+    {
+        for ( int i = 0; i < 3; i++ ) hub.subscribe( viewer( "staff" + i ), screenOf( ALICE ) );
+
+        for ( int i = 0; i < 5; i++ ) hub.onChange( changeFor( ALICE ) );
+        hub.tick();
+
+        assertEquals( List.of( screenOf( ALICE ) ), rendered );
+        assertEquals( List.of( 3 ), fanouts );
+    }
+
+    public void testUnchangedScreenIsNotRendered()
+    {
+        hub.subscribe( viewer( "staff" ), screenOf( ALICE ) );
+
+        hub.tick();
+        hub.onChange( changeFor( BOB ) );
+        hub.tick();
+
+        assertTrue( rendered.isEmpty() );
+    }
+
+    public void testUnsubscribedViewerGetsNothing()
+    {
+        Player staff = viewer( "staff" );
+        hub.subscribe( staff, screenOf( ALICE ) );
+        hub.unsubscribe( staff );
+
+        hub.onChange( changeFor( ALICE ) );
+        hub.tick();
+
+        assertTrue( rendered.isEmpty() );
+        assertEquals( 0, hub.stats().subscribers() );
+    }
+
+    public void testResubscribingMovesViewer()
+    {
+        Player staff = viewer( "staff" );
+        hub.subscribe( staff, screenOf( ALICE ) );
+        hub.subscribe( staff, screenOf( BOB ) );
+
+        hub.onChange( changeFor( ALICE ) );
+        hub.onChange( changeFor( BOB ) );
+        hub.tick();
+
+        assertEquals( List.of( screenOf( BOB ) ), rendered );
+        assertEquals( 1, hub.stats().screens() );
+        assertEquals( Set.of( screenOf( BOB ) ), hub.watchedScreens() );
+    }
+
+    // ─── Fixtures ──────────────────────────────────────────────────────────
+
+    private static Key screenOf( UUID player )
+    {
+        return Key.key( "psync", "player/" + player.toString().replace( "-", "" ) );
+    }
+
+    private static SnapshotIndex.Change changeFor( UUID player )
+    {
+        return new SnapshotIndex.Change( null, List.of(),
+            List.of( new SnapshotIndex.AddedSnapshot( player, null ) ) );
+    }
+
+    private static Player viewer( String name )
+    {
+        UUID uuid = UUID.nameUUIDFromBytes( name.getBytes() );
+        return (Player) Proxy.newProxyInstance( Player.class.getClassLoader(), new Class<?>[] { Player.class },
+            ( proxy, method, args ) -> switch ( method.getName() ) {
+                case "getUniqueId" -> uuid;
+                case "hashCode"    -> uuid.hashCode();
+                case "equals"      -> proxy == args[0];
+                default            -> null;
+            } );
+    }
+}
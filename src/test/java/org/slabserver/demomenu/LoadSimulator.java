@@ -0,0 +1,284 @@
+package org.slabserver.demomenu;
+
+import io.papermc.paper.connection.PlayerGameConnection;
+import io.papermc.paper.dialog.DialogResponseView;
+import io.papermc.paper.event.player.PlayerCustomClickEvent;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.nbt.api.BinaryTagHolder;
+import org.bukkit.entity.Player;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+/**
+ * Headless load harness for DemoMenuSystem.
+ *
+ * Spins up virtual viewers backed by stand-in Player and PlayerGameConnection
+ * proxies, then fires synthetic PlayerCustomClickEvents through the real
+ * listener. Each viewer repeats the navigation sequence
+ *
+ *   list/{page} → player → snapshot → back to snapshots → back to list
+ *
+ * by clicking buttons on the last screen it was shown, so the harness follows
+ * whatever keys DemoMenuSystem actually renders. The presenter hook is swapped
+ * for the duration of a run, so no Dialog is ever assembled and no server is
+ * needed.
+ */
+@SuppressWarnings("UnstableApiUsage")
+final class LoadSimulator {
+
+    /**
+     * @param viewers            number of concurrent virtual viewers
+     * @param threads            platform threads driving the viewers
+     * @param sequencesPerViewer full list → … → list sequences per viewer
+     * @param clicksPerSecond    per-viewer click rate; 0 = as fast as possible
+     * @param seed               seed for page / player / snapshot choices
+     */
+    record Config(int viewers, int threads, int sequencesPerViewer, double clicksPerSecond, long seed) {}
+
+    /** Latencies in nanoseconds; allocation in bytes per interaction. */
+    record Report(long interactions, double seconds, long p50, long p99, long p999, double bytesPerInteraction) {
+
+        double throughput() {
+            return interactions / seconds;
+        }
+
+        String format() {
+            return String.format(Locale.ROOT,
+                "%d interactions in %.2fs  ·  %.0f/s  ·  p50 %.1fµs  p99 %.1fµs  p999 %.1fµs  ·  %.0f B/interaction",
+                interactions, seconds, throughput(), p50 / 1e3, p99 / 1e3, p999 / 1e3, bytesPerInteraction);
+        }
+    }
+
+    private static final int STEPS_PER_SEQUENCE = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private LoadSimulator() {}
+
+    static Report run(Config config) throws InterruptedException {
+        DemoMenuSystem listener = new DemoMenuSystem();
+        SplittableRandom seeds = new SplittableRandom(config.seed());
+
+        List<VirtualViewer> viewers = new ArrayList<>(config.viewers());
+        for (int i = 0; i < config.viewers(); i++) viewers.add(new VirtualViewer(i, seeds.split()));
+
+        long interval = config.clicksPerSecond() > 0 ? (long) (1e9 / config.clicksPerSecond()) : 0L;
+        Worker[] workers = new Worker[config.threads()];
+        for (int w = 0; w < workers.length; w++) {
+            List<VirtualViewer> slice = new ArrayList<>();
+            for (int i = w; i < viewers.size(); i += workers.length) slice.add(viewers.get(i));
+            workers[w] = new Worker(listener, slice, config.sequencesPerViewer(), interval);
+        }
+
+        BiConsumer<Player, DemoScreen> previous = DemoMenuSystem.presenter;
+        DemoMenuSystem.presenter = (player, screen) -> VirtualViewer.of(player).lastScreen = screen;
+        long start = System.nanoTime();
+        try {
+            for (Worker w : workers) w.start();
+            for (Worker w : workers) w.join();
+        } finally {
+            DemoMenuSystem.presenter = previous;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (Worker w : workers) {
+            if (w.failure != null) throw new IllegalStateException("virtual viewer failed", w.failure);
+        }
+
+        long[] latencies = Arrays.stream(workers).flatMapToLong(w -> Arrays.stream(w.latencies, 0, w.count)).sorted().toArray();
+        long allocated   = Arrays.stream(workers).mapToLong(w -> w.allocated).sum();
+
+        return new Report(
+            latencies.length,
+            elapsed / 1e9,
+            percentile(latencies, 0.50),
+            percentile(latencies, 0.99),
+            percentile(latencies, 0.999),
+            latencies.length == 0 ? 0 : (double) allocated / latencies.length
+        );
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0L;
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+
+    // ─── Worker: drives a slice of viewers on one platform thread ─────────
+
+    private static final class Worker extends Thread {
+
+        private final DemoMenuSystem listener;
+        private final List<VirtualViewer> viewers;
+        private final int  steps;
+        private final long interval;
+
+        final long[] latencies;
+        int       count;
+        long      allocated;
+        Throwable failure;
+
+        Worker(DemoMenuSystem listener, List<VirtualViewer> viewers, int sequences, long interval) {
+            this.listener  = listener;
+            this.viewers   = viewers;
+            this.steps     = sequences * STEPS_PER_SEQUENCE;
+            this.interval  = interval;
+            this.latencies = new long[viewers.size() * steps];
+        }
+
+        @Override
+        public void run() {
+            try {
+                long now = System.nanoTime();
+                for (VirtualViewer v : viewers) v.nextDue = interval == 0 ? now : now + v.random.nextLong(interval);
+
+                int remaining = viewers.size();
+                while (remaining > 0) {
+                    now = System.nanoTime();
+                    long earliest = Long.MAX_VALUE;
+                    for (VirtualViewer v : viewers) {
+                        if (v.steps == steps) continue;
+                        if (v.nextDue > now) {
+                            earliest = Math.min(earliest, v.nextDue);
+                            continue;
+                        }
+                        click(v);
+                        if (v.steps == steps) remaining--;
+                        else v.nextDue = now + interval;
+                    }
+                    if (earliest != Long.MAX_VALUE) LockSupport.parkNanos(earliest - System.nanoTime());
+                }
+            } catch (Throwable t) {
+                failure = t;
+            }
+        }
+
+        private void click(VirtualViewer v) {
+            PlayerCustomClickEvent event = new SyntheticClick(v.nextKey(), v.connection);
+            DemoScreen before = v.lastScreen;
+
+            long bytes = THREADS.getCurrentThreadAllocatedBytes();
+            long t0 = System.nanoTime();
+            listener.onCustomClick(event);
+            long t1 = System.nanoTime();
+            allocated += THREADS.getCurrentThreadAllocatedBytes() - bytes;
+
+            if (v.lastScreen == before) throw new IllegalStateException("no screen shown for " + event.getIdentifier());
+            latencies[count++] = t1 - t0;
+            v.steps++;
+        }
+    }
+
+    // ─── Virtual viewer: stand-in Player with its own navigation state ────
+
+    private static final class VirtualViewer implements InvocationHandler {
+
+        private final String name;
+        private final UUID   uuid;
+        private final SplittableRandom random;
+
+        final Player player;
+        final PlayerGameConnection connection;
+
+        volatile DemoScreen lastScreen;
+        int  steps;
+        long nextDue;
+
+        VirtualViewer(int idx, SplittableRandom random) {
+            this.name   = "viewer" + idx;
+            this.uuid   = UUID.nameUUIDFromBytes(name.getBytes());
+            this.random = random;
+            this.player = (Player) Proxy.newProxyInstance(
+                Player.class.getClassLoader(), new Class<?>[] { Player.class }, this);
+            this.connection = (PlayerGameConnection) Proxy.newProxyInstance(
+                PlayerGameConnection.class.getClassLoader(), new Class<?>[] { PlayerGameConnection.class },
+                (proxy, method, args) -> method.getName().equals("getPlayer") ? player : invokeDefault(proxy, method, args));
+        }
+
+        static VirtualViewer of(Player player) {
+            return (VirtualViewer) Proxy.getInvocationHandler(player);
+        }
+
+        /** Next click in the list → player → snapshot → back → back sequence. */
+        Key nextKey() {
+            return switch (steps % STEPS_PER_SEQUENCE) {
+                case 0  -> DemoMenuSystem.listKey(random.nextInt(pageCount()));
+                case 1  -> pick("player/");
+                case 2  -> pick("snapshot/");
+                case 3  -> pick("player/");
+                default -> pick("list/");
+            };
+        }
+
+        private Key pick(String prefix) {
+            List<Key> candidates = new ArrayList<>();
+            for (DemoScreen.Button b : lastScreen.buttons()) {
+                if (b.action() != null && b.action().value().startsWith(prefix)) candidates.add(b.action());
+            }
+            if (candidates.isEmpty()) throw new IllegalStateException("no " + prefix + " button on " + lastScreen.title());
+            return candidates.get(random.nextInt(candidates.size()));
+        }
+
+        private static int pageCount() {
+            return (SnapshotIndex.LIVE.current().playerCount() + 5) / 6;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            return switch (method.getName()) {
+                case "getName"     -> name;
+                case "getUniqueId" -> uuid;
+                default            -> invokeDefault(proxy, method, args);
+            };
+        }
+
+        private static Object invokeDefault(Object proxy, Method method, Object[] args) {
+            return switch (method.getName()) {
+                case "equals"   -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "VirtualViewer";
+                default         -> zero(method.getReturnType());
+            };
+        }
+
+        private static Object zero(Class<?> type) {
+            if (!type.isPrimitive() || type == void.class) return null;
+            if (type == boolean.class) return false;
+            if (type == char.class)    return '\0';
+            if (type == long.class)    return 0L;
+            if (type == float.class)   return 0f;
+            if (type == double.class)  return 0d;
+            if (type == int.class)     return 0;
+            if (type == short.class)   return (short) 0;
+            return (byte) 0;
+        }
+    }
+
+    // ─── Synthetic click: what the server fires for a customClick action ──
+
+    private static final class SyntheticClick extends PlayerCustomClickEvent {
+
+        SyntheticClick(Key identifier, PlayerGameConnection connection) {
+            super(identifier, connection);
+        }
+
+        public BinaryTagHolder getTag() {
+            return null;
+        }
+
+        public DialogResponseView getDialogResponseView() {
+            return null;
+        }
+    }
+}
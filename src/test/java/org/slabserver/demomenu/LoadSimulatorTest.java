@@ -0,0 +1,54 @@
+package org.slabserver.demomenu;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Runs the headless load harness against DemoMenuSystem.
+ */
+public class LoadSimulatorTest
+    extends TestCase
+{
+    public LoadSimulatorTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( LoadSimulatorTest.class );
+    }
+
+    /**
+     * 500 viewers browsing at 20 clicks/s each, every click must produce a screen.
+     */
+    public void testPacedBrowsing() throws Exception
+    {
+        LoadSimulator.Report report = LoadSimulator.run(
+            new LoadSimulator.Config( 500, 4, 3, 20.0, 42L ) );
+        System.out.println( "[paced]     " + report.format() );
+
+        assertEquals( 500L * 3 * 5, report.interactions() );
+        assertTrue( report.p50() <= report.p99() );
+        assertTrue( report.p99() <= report.p999() );
+    }
+
+    /**
+     * Unpaced run to find the throughput ceiling of a single screen build.
+     */
+    public void testSaturatedBrowsing() throws Exception
+    {
+        LoadSimulator.Report report = LoadSimulator.run(
+            new LoadSimulator.Config( 2000, Runtime.getRuntime().availableProcessors(), 5, 0.0, 7L ) );
+        System.out.println( "[saturated] " + report.format() );
+
+        assertEquals( 2000L * 5 * 5, report.interactions() );
+        assertTrue( report.throughput() > 0 );
+        assertTrue( report.bytesPerInteraction() > 0 );
+
+        PayloadBudget.Stats payload = DemoMenuSystem.PAYLOAD.stats();
+        assertEquals( 0L, payload.overBudget() );
+        assertTrue( payload.bytesAfter() <= payload.bytesBefore() );
+    }
+}
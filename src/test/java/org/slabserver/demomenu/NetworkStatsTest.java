@@ -0,0 +1,186 @@
+package org.slabserver.demomenu;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Incremental counters versus the fork-join rescan in NetworkStats.
+ */
+public class NetworkStatsTest
+    extends TestCase
+{
+    public NetworkStatsTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( NetworkStatsTest.class );
+    }
+
+    public void testSeedMatchesScan()
+    {
+        SnapshotIndex source = new SnapshotIndex( DemoData.PLAYERS );
+        NetworkStats stats = new NetworkStats();
+        stats.attach( source );
+
+        assertEquals( NetworkStats.scan( source.current() ), stats.totals() );
+        assertTrue( stats.averageHealth() > 0 );
+    }
+
+    public void testAverageHealthKeepsFractions()
+    {
+        UUID uuid = UUID.nameUUIDFromBytes( "Hurt".getBytes() );
+        SnapshotIndex source = new SnapshotIndex( List.of( new DemoData.DemoPlayer( "Hurt", uuid, List.of(
+            TestSnapshots.builder( 1 ).health( 13.7 ).build(),
+            TestSnapshots.builder( 2 ).health( 20.0 ).build() ) ) ) );
+        NetworkStats stats = new NetworkStats();
+        stats.attach( source );
+        source.addSnapshot( uuid, TestSnapshots.builder( 3 ).health( 0.35 ).build() );
+
+        assertEquals( ( 13.7 + 20.0 + 0.35 ) / 3, stats.averageHealth(), 1e-9 );
+        assertEquals( NetworkStats.scan( source.current() ), stats.totals() );
+    }
+
+    public void testConcurrentInsertsMatchScan() throws Exception
+    {
+        List<DemoData.DemoPlayer> players = new ArrayList<>();
+        for ( int i = 0; i < 1000; i++ ) {
+            players.add( new DemoData.DemoPlayer( "P" + i, UUID.nameUUIDFromBytes( ( "P" + i ).getBytes() ), List.of() ) );
+        }
+        SnapshotIndex source = new SnapshotIndex( players );
+        NetworkStats stats = new NetworkStats();
+        stats.attach( source );
+
+        Thread[] writers = new Thread[4];
+        for ( int t = 0; t < writers.length; t++ ) {
+            int offset = t;
+            writers[t] = new Thread( () -> {
+                for ( int i = 0; i < 500; i++ ) {
+                    int p = ( i * 7 + offset ) % players.size();
+                    source.addSnapshot( players.get( p ).uuid(), snapshot( offset * 1000 + i ) );
+                }
+            } );
+            writers[t].start();
+        }
+        for ( Thread w : writers ) w.join();
+
+        NetworkStats.Totals scanned = NetworkStats.scan( source.current() );
+        assertEquals( 2000L, scanned.snapshots() );
+        assertEquals( scanned, stats.totals() );
+    }
+
+    public void testVerifyReportsConsistent() throws Exception
+    {
+        SnapshotIndex source = new SnapshotIndex( DemoData.PLAYERS );
+        NetworkStats stats = new NetworkStats();
+        stats.attach( source );
+
+        NetworkStats.Verification v = verify( stats, source );
+
+        assertTrue( v.settled() );
+        assertTrue( v.consistent() );
+    }
+
+    public void testVerifyReportsCountersThatDiffer() throws Exception
+    {
+        SnapshotIndex source = new SnapshotIndex( DemoData.PLAYERS );
+        NetworkStats stats = new NetworkStats();
+        stats.attach( source );
+
+        // Same version (0), one snapshot more: the counters are settled but wrong for it
+        List<DemoData.DemoPlayer> more = new ArrayList<>( DemoData.PLAYERS );
+        DemoData.DemoPlayer first = more.get( 0 );
+        List<DemoData.DemoSnapshot> history = new ArrayList<>( first.snapshots() );
+        history.add( snapshot( 1 ) );
+        more.set( 0, new DemoData.DemoPlayer( first.name(), first.uuid(), history ) );
+
+        NetworkStats.Verification v = verify( stats, new SnapshotIndex( more ) );
+
+        assertTrue( v.settled() );
+        assertFalse( v.consistent() );
+    }
+
+    public void testLostChangeKeepsVerificationUnsettled() throws Exception
+    {
+        SnapshotIndex source = new SnapshotIndex( DemoData.PLAYERS );
+        NetworkStats stats = new NetworkStats();
+        stats.attach( source );
+        stats.detach( source );
+        source.addSnapshot( source.current().players().get( 0 ).uuid(), snapshot( 1 ) );   // counters never see it
+
+        NetworkStats.Verification v = verify( stats, source );
+
+        assertFalse( v.settled() );
+        assertEquals( 0L, v.applied() );
+        assertEquals( 1L, v.epoch() );
+    }
+
+    /**
+     * A publish is visible before its counts land, so a scan can see an epoch
+     * the counters haven't caught up with. That must read as unsettled, never
+     * as inconsistent.
+     */
+    public void testVerifyUnderLiveWritesNeverReportsInconsistent() throws Exception
+    {
+        List<DemoData.DemoPlayer> players = new ArrayList<>();
+        for ( int i = 0; i < 2000; i++ ) {
+            players.add( new DemoData.DemoPlayer( "P" + i, UUID.nameUUIDFromBytes( ( "P" + i ).getBytes() ), List.of() ) );
+        }
+        SnapshotIndex source = new SnapshotIndex( players );
+        NetworkStats stats = new NetworkStats();
+        stats.attach( source );
+
+        Thread[] writers = new Thread[4];
+        for ( int t = 0; t < writers.length; t++ ) {
+            int offset = t;
+            writers[t] = new Thread( () -> {
+                for ( int i = 0; i < 2000; i++ ) {
+                    source.addSnapshot( players.get( ( i * writers.length + offset ) % players.size() ).uuid(), snapshot( i ) );
+                }
+            } );
+            writers[t].start();
+        }
+        int runs = 0;
+        while ( runs == 0 || Arrays.stream( writers ).anyMatch( Thread::isAlive ) ) {
+            NetworkStats.Verification v = verify( stats, source );
+            assertTrue( "inconsistent at epoch " + v.epoch() + ", applied " + v.applied(),
+                !v.settled() || v.consistent() );
+            runs++;
+        }
+        for ( Thread w : writers ) w.join();
+
+        assertEquals( source.current().version(), stats.appliedThrough() );
+        NetworkStats.Verification quiet = verify( stats, source );
+        assertTrue( quiet.settled() );
+        assertTrue( quiet.consistent() );
+    }
+
+    private static NetworkStats.Verification verify( NetworkStats stats, SnapshotIndex source ) throws Exception
+    {
+        stats.verifyAsync( source );
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ( stats.verification().running() && System.currentTimeMillis() < deadline ) Thread.sleep( 1 );
+        assertFalse( "verification timed out", stats.verification().running() );
+        return stats.verification();
+    }
+
+    /** Spreads snapshots over servers, worlds, modes and hours so every total has several keys. */
+    private static DemoData.DemoSnapshot snapshot( int id )
+    {
+        String[] modes = { "SURVIVAL", "CREATIVE", "ADVENTURE" };
+        return TestSnapshots.builder( id )
+            .server( "s" + id % 3 ).world( "w" + id % 2 )
+            .health( 1 + ( id % 39 ) / 2.0 ).food( id % 21 ).xpLevel( id % 30 )
+            .gamemode( modes[id % 3] )
+            .savedAt( TestSnapshots.BASE_EPOCH_SECOND + id * 97L )
+            .build();
+    }
+}
@@ -0,0 +1,104 @@
+package org.slabserver.demomenu;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Unit tests for the open-addressing PlayerIdMap.
+ */
+public class PlayerIdMapTest
+    extends TestCase
+{
+    public PlayerIdMapTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( PlayerIdMapTest.class );
+    }
+
+    public void testGrowsPastInitialCapacity()
+    {
+        PlayerIdMap map = new PlayerIdMap( 4 );
+        List<UUID> uuids = new ArrayList<>();
+        for ( int i = 0; i < 100_000; i++ ) {
+            UUID uuid = UUID.randomUUID();
+            uuids.add( uuid );
+            map.put( uuid, i );
+        }
+
+        assertEquals( 100_000, map.size() );
+        for ( int i = 0; i < uuids.size(); i++ ) assertEquals( i, map.get( uuids.get( i ) ) );
+        assertEquals( PlayerIdMap.MISSING, map.get( UUID.randomUUID() ) );
+    }
+
+    public void testPutReplacesExistingMapping()
+    {
+        PlayerIdMap map = new PlayerIdMap( 8 );
+        UUID uuid = UUID.nameUUIDFromBytes( "AlphaWolf99".getBytes() );
+
+        map.put( uuid, 1 );
+        map.put( uuid, 7 );
+
+        assertEquals( 1, map.size() );
+        assertEquals( 7, map.get( uuid.getMostSignificantBits(), uuid.getLeastSignificantBits() ) );
+    }
+
+    public void testCopyIsIndependent()
+    {
+        PlayerIdMap map = new PlayerIdMap( 8 );
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        map.put( a, 0 );
+
+        PlayerIdMap copy = map.copy();
+        copy.put( b, 1 );
+
+        assertEquals( PlayerIdMap.MISSING, map.get( b ) );
+        assertEquals( 0, copy.get( a ) );
+        assertEquals( 1, copy.get( b ) );
+    }
+
+    public void testCopySharesUntouchedShards()
+    {
+        PlayerIdMap map = new PlayerIdMap( 100_000 );
+        List<UUID> uuids = new ArrayList<>();
+        for ( int i = 0; i < 100_000; i++ ) {
+            uuids.add( UUID.randomUUID() );
+            map.put( uuids.get( i ), i );
+        }
+        UUID added = UUID.randomUUID();
+
+        PlayerIdMap copy = map.copy();
+        copy.put( added, 100_000 );
+
+        assertFalse( copy.sharesShard( map, added ) );
+        int shared = 0;
+        for ( UUID u : uuids ) if ( copy.sharesShard( map, u ) ) shared++;
+        assertTrue( "only one shard should be copied, shared " + shared, shared > uuids.size() * 0.99 );
+        assertEquals( PlayerIdMap.MISSING, map.get( added ) );
+        assertEquals( 100_001, copy.size() );
+        for ( int i = 0; i < uuids.size(); i++ ) assertEquals( i, copy.get( uuids.get( i ) ) );
+    }
+
+    public void testEpochResolvesPlayersAddedLater()
+    {
+        SnapshotIndex index = new SnapshotIndex( DemoData.PLAYERS );
+        UUID uuid = UUID.nameUUIDFromBytes( "Latecomer".getBytes() );
+        PlayerIdMap before = index.current().ids();
+
+        index.publish( b -> b.addPlayer( new DemoData.DemoPlayer( "Latecomer", uuid, List.of() ) ) );
+
+        SnapshotIndex.Epoch epoch = index.current();
+        assertEquals( "Latecomer",
+            epoch.player( uuid.getMostSignificantBits(), uuid.getLeastSignificantBits() ).name() );
+        assertEquals( PlayerIdMap.MISSING, before.get( uuid ) );
+    }
+}
@@ -0,0 +1,99 @@
+package org.slabserver.demomenu;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Row-count, filtering and encoding tests for SnapshotExporter.
+ */
+public class SnapshotExporterTest
+    extends TestCase
+{
+    public SnapshotExporterTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( SnapshotExporterTest.class );
+    }
+
+    public void testNdjsonWritesOneLinePerSnapshot() throws Exception
+    {
+        SnapshotIndex.Epoch epoch = SnapshotIndex.LIVE.current();
+        long expected = epoch.players().stream().mapToLong( p -> p.snapshots().size() ).sum();
+        Path dir = Files.createTempDirectory( "export-test" );
+        try {
+            Path out = dir.resolve( "all.ndjson" );
+
+            SnapshotExporter.Progress done = SnapshotExporter.export( epoch, new SnapshotExporter.Scope.InRange( 0, Long.MAX_VALUE ),
+                SnapshotExporter.Format.NDJSON, out, p -> {} );
+
+            List<String> lines = Files.readAllLines( out, StandardCharsets.UTF_8 );
+            assertEquals( expected, done.rows() );
+            assertEquals( expected, lines.size() );
+            assertTrue( lines.get( 0 ).startsWith( "{\"player\":" ) );
+            assertTrue( lines.get( 0 ).endsWith( "}" ) );
+        } finally {
+            TestFiles.deleteTree( dir );
+        }
+    }
+
+    public void testServerScopeFiltersRows() throws Exception
+    {
+        SnapshotIndex.Epoch epoch = SnapshotIndex.LIVE.current();
+        String server = epoch.players().get( 0 ).snapshots().get( 0 ).serverName();
+        long expected = epoch.players().stream().flatMap( p -> p.snapshots().stream() )
+            .filter( s -> s.serverName().equals( server ) ).count();
+        Path dir = Files.createTempDirectory( "export-test" );
+        try {
+            Path out = dir.resolve( "server.csv" );
+
+            SnapshotExporter.export( epoch, new SnapshotExporter.Scope.OfServer( server ),
+                SnapshotExporter.Format.CSV, out, p -> {} );
+
+            List<String> lines = Files.readAllLines( out, StandardCharsets.UTF_8 );
+            assertTrue( lines.get( 0 ).startsWith( "player,uuid," ) );
+            assertEquals( expected, lines.size() - 1 );
+        } finally {
+            TestFiles.deleteTree( dir );
+        }
+    }
+
+    public void testEscapesAndMultiByteTextSurviveBufferFlushes() throws Exception
+    {
+        // Enough rows to cross several encoder flushes, with names that need escaping
+        List<DemoData.DemoPlayer> players = new ArrayList<>();
+        for ( int i = 0; i < 3000; i++ ) {
+            String name = "Näme,\"" + i + "\"☃";
+            players.add( new DemoData.DemoPlayer( name, UUID.nameUUIDFromBytes( name.getBytes( StandardCharsets.UTF_8 ) ),
+                List.of( TestSnapshots.of( i ) ) ) );
+        }
+        SnapshotIndex.Epoch epoch = new SnapshotIndex( players ).current();
+        List<SnapshotExporter.Progress> reports = new ArrayList<>();
+        Path dir = Files.createTempDirectory( "export-test" );
+        try {
+            Path out = dir.resolve( "escaped.csv" );
+
+            SnapshotExporter.export( epoch, new SnapshotExporter.Scope.InRange( 0, Long.MAX_VALUE ),
+                SnapshotExporter.Format.CSV, out, reports::add );
+
+            List<String> lines = Files.readAllLines( out, StandardCharsets.UTF_8 );
+            assertEquals( 3001, lines.size() );
+            assertTrue( lines.get( 3000 ).startsWith( "\"Näme,\"\"2999\"\"☃\"," ) );
+            assertEquals( 100, reports.get( reports.size() - 1 ).percent() );
+            assertTrue( reports.size() > 2 );
+        } finally {
+            TestFiles.deleteTree( dir );
+        }
+    }
+}
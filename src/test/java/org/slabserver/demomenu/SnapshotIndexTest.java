@@ -0,0 +1,267 @@
+package org.slabserver.demomenu;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Concurrency tests for the epoch-versioned SnapshotIndex.
+ */
+public class SnapshotIndexTest
+    extends TestCase
+{
+    private static final int PLAYERS = 50;
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int BATCHES_PER_WRITER = 500;
+
+    private static final int LATENCY_PLAYERS  = 5000;
+    private static final int WALKS_PER_READER = 2000;
+    private static final int LATENCY_SLOWDOWN = 4;     // allowed p50 ratio, loaded vs idle
+
+    public SnapshotIndexTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( SnapshotIndexTest.class );
+    }
+
+    public void testBatchIsPublishedAsOneEpoch()
+    {
+        SnapshotIndex index = new SnapshotIndex( emptyRoster() );
+        List<DemoData.DemoPlayer> roster = index.current().players();
+
+        SnapshotIndex.Epoch next = index.publish( b -> {
+            for ( DemoData.DemoPlayer p : roster ) b.addSnapshot( p.uuid(), TestSnapshots.of( 1 ) );
+        } );
+
+        assertEquals( 1L, next.version() );
+        for ( DemoData.DemoPlayer p : next.players() ) assertEquals( 1, p.snapshots().size() );
+        assertEquals( 0, roster.get( 0 ).snapshots().size() ); // old epoch untouched
+    }
+
+    public void testNewestSnapshotComesFirst()
+    {
+        SnapshotIndex index = new SnapshotIndex( emptyRoster() );
+        UUID uuid = index.current().players().get( 0 ).uuid();
+
+        index.addSnapshot( uuid, TestSnapshots.of( 1 ) );
+        index.addSnapshot( uuid, TestSnapshots.of( 2 ) );
+
+        assertEquals( 2, index.current().players().get( 0 ).snapshots().get( 0 ).id() );
+    }
+
+    public void testAddPlayerIsIdempotent()
+    {
+        SnapshotIndex index = new SnapshotIndex( emptyRoster() );
+        DemoData.DemoPlayer existing = index.current().players().get( 3 );
+
+        index.publish( b -> b.addPlayer( existing ).addPlayer( player( "Newcomer" ) ) );
+
+        assertEquals( PLAYERS + 1, index.current().playerCount() );
+        assertEquals( "Newcomer", index.current().players().get( PLAYERS ).name() );
+    }
+
+    public void testPublishCopiesOnlyTouchedChunks()
+    {
+        int n = SnapshotIndex.Roster.CHUNK * 2 + 7;         // partial tail chunk
+        List<DemoData.DemoPlayer> seed = new ArrayList<>();
+        for ( int i = 0; i < n; i++ ) seed.add( player( "Player" + i ) );
+        SnapshotIndex index = new SnapshotIndex( seed );
+        SnapshotIndex.Epoch before = index.current();
+        UUID target = before.players().get( SnapshotIndex.Roster.CHUNK + 5 ).uuid();
+
+        index.publish( b -> b.addSnapshot( target, TestSnapshots.of( 1 ) ).addPlayer( player( "Newcomer" ) ) );
+        SnapshotIndex.Epoch after = index.current();
+
+        assertEquals( n, before.playerCount() );
+        assertEquals( 0, before.players().get( SnapshotIndex.Roster.CHUNK + 5 ).snapshots().size() );
+        assertEquals( n + 1, after.playerCount() );
+        assertEquals( 1, after.players().get( SnapshotIndex.Roster.CHUNK + 5 ).snapshots().size() );
+        assertEquals( "Newcomer", after.players().get( n ).name() );
+        assertSame( before.players().get( 0 ), after.players().get( 0 ) );
+        for ( int i = 0; i < n; i++ ) assertEquals( before.players().get( i ).uuid(), after.players().get( i ).uuid() );
+        try {
+            before.players().get( n );
+            fail( "old roster grew" );
+        } catch ( IndexOutOfBoundsException expected ) {
+            // the appended player is only visible in the new epoch
+        }
+    }
+
+    public void testSubscribersSeeOnlyAppliedWrites()
+    {
+        SnapshotIndex index = new SnapshotIndex( emptyRoster() );
+        UUID known = index.current().players().get( 0 ).uuid();
+        List<SnapshotIndex.Change> seen = new ArrayList<>();
+        index.subscribe( seen::add );
+
+        index.publish( b -> b.addSnapshot( known, TestSnapshots.of( 1 ) ).addSnapshot( UUID.randomUUID(), TestSnapshots.of( 2 ) ) );
+        SnapshotIndex.Epoch before = index.current();
+        SnapshotIndex.Epoch skipped = index.publish( b -> b.addSnapshot( UUID.randomUUID(), TestSnapshots.of( 3 ) ) );
+
+        assertSame( before, skipped );                      // nothing applied, nothing published
+        assertEquals( 1L, index.current().version() );
+        assertEquals( 1, seen.size() );
+        assertEquals( 1, seen.get( 0 ).addedSnapshots().size() );
+        assertEquals( known, seen.get( 0 ).addedSnapshots().get( 0 ).player() );
+        assertFalse( seen.get( 0 ).rosterChanged() );
+    }
+
+    /**
+     * Every batch adds one snapshot to every player, so in any consistent epoch
+     * all players hold exactly {@code version} snapshots. A torn read would show
+     * players with differing counts.
+     */
+    public void testNoTornReadsUnderConcurrentWrites() throws Exception
+    {
+        SnapshotIndex index = new SnapshotIndex( emptyRoster() );
+        List<UUID> uuids = index.current().players().stream().map( DemoData.DemoPlayer::uuid ).toList();
+
+        AtomicBoolean writing = new AtomicBoolean( true );
+        AtomicReference<String> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch( 1 );
+        List<Thread> threads = new ArrayList<>();
+
+        for ( int w = 0; w < WRITERS; w++ ) {
+            threads.add( new Thread( () -> {
+                await( start );
+                for ( int i = 0; i < BATCHES_PER_WRITER; i++ ) {
+                    index.publish( b -> { for ( UUID u : uuids ) b.addSnapshot( u, TestSnapshots.of( 0 ) ); } );
+                }
+            } ) );
+        }
+        for ( int r = 0; r < READERS; r++ ) {
+            threads.add( new Thread( () -> {
+                await( start );
+                long lastVersion = -1;
+                while ( writing.get() && failure.get() == null ) {
+                    SnapshotIndex.Epoch e = index.current();
+                    if ( e.version() < lastVersion ) failure.set( "version went backwards" );
+                    lastVersion = e.version();
+                    if ( e.snapshotCount() != e.version() * PLAYERS ) failure.set( "snapshot total out of step with roster" );
+                    for ( DemoData.DemoPlayer p : e.players() ) {
+                        if ( p.snapshots().size() != e.version() ) {
+                            failure.set( "torn read at epoch " + e.version() + ": " + p.snapshots().size() );
+                        }
+                    }
+                }
+            } ) );
+        }
+
+        threads.forEach( Thread::start );
+        start.countDown();
+        for ( Thread t : threads.subList( 0, WRITERS ) ) t.join();
+        writing.set( false );
+        for ( Thread t : threads.subList( WRITERS, threads.size() ) ) t.join();
+
+        assertNull( failure.get(), failure.get() );
+        assertEquals( (long) WRITERS * BATCHES_PER_WRITER, index.current().version() );
+    }
+
+    /**
+     * Times what a screen build actually does with an epoch — walk the whole
+     * roster — first with no writers, then while writers publish flat out.
+     * Readers never wait on writers, so the typical walk must cost about the
+     * same; only scheduling and cache effects may slow it down.
+     */
+    public void testReadLatencyStaysFlatUnderWrites() throws Exception
+    {
+        List<DemoData.DemoPlayer> seed = new ArrayList<>();
+        for ( int i = 0; i < LATENCY_PLAYERS; i++ ) seed.add( player( "Player" + i ) );
+        SnapshotIndex index = new SnapshotIndex( seed );
+        List<UUID> uuids = seed.stream().map( DemoData.DemoPlayer::uuid ).toList();
+
+        timeWalks( index );                                 // warm-up: let the JIT settle first
+        long[] idle = timeWalks( index );
+
+        AtomicBoolean writing = new AtomicBoolean( true );
+        List<Thread> writers = new ArrayList<>();
+        for ( int w = 0; w < WRITERS; w++ ) {
+            int offset = w;
+            writers.add( new Thread( () -> {
+                for ( int i = offset; writing.get(); i += WRITERS ) {
+                    index.addSnapshot( uuids.get( i % uuids.size() ), TestSnapshots.of( i ) );
+                }
+            } ) );
+        }
+        writers.forEach( Thread::start );
+        long[] loaded;
+        try {
+            loaded = timeWalks( index );
+        } finally {
+            writing.set( false );
+            for ( Thread t : writers ) t.join();
+        }
+
+        assertTrue( "writers made no progress", index.current().version() > 0 );
+        long idleP50 = percentile( idle, 0.50 ), loadedP50 = percentile( loaded, 0.50 );
+        assertTrue( "walk p50 " + loadedP50 + "ns under writes vs " + idleP50 + "ns idle",
+            loadedP50 <= idleP50 * LATENCY_SLOWDOWN );
+    }
+
+    /** READERS threads each walk the current epoch WALKS_PER_READER times; returns every walk's duration. */
+    private static long[] timeWalks( SnapshotIndex index ) throws Exception
+    {
+        long[][] samples = new long[READERS][WALKS_PER_READER];
+        long[] sink = new long[READERS];
+        CountDownLatch start = new CountDownLatch( 1 );
+        List<Thread> readers = new ArrayList<>();
+        for ( int r = 0; r < READERS; r++ ) {
+            int slot = r;
+            readers.add( new Thread( () -> {
+                await( start );
+                for ( int i = 0; i < WALKS_PER_READER; i++ ) {
+                    long t0 = System.nanoTime();
+                    long total = 0;
+                    for ( DemoData.DemoPlayer p : index.current().players() ) total += p.snapshots().size();
+                    samples[slot][i] = System.nanoTime() - t0;
+                    sink[slot] += total;
+                }
+            } ) );
+        }
+        readers.forEach( Thread::start );
+        start.countDown();
+        for ( Thread t : readers ) t.join();
+        return Arrays.stream( samples ).flatMapToLong( Arrays::stream ).sorted().toArray();
+    }
+
+    private static long percentile( long[] sorted, double p )
+    {
+        return sorted[(int) ( ( sorted.length - 1 ) * p )];
+    }
+
+    // ─── Fixtures ──────────────────────────────────────────────────────────
+
+    private static List<DemoData.DemoPlayer> emptyRoster()
+    {
+        List<DemoData.DemoPlayer> roster = new ArrayList<>();
+        for ( int i = 0; i < PLAYERS; i++ ) roster.add( player( "Player" + i ) );
+        return roster;
+    }
+
+    private static DemoData.DemoPlayer player( String name )
+    {
+        return new DemoData.DemoPlayer( name, UUID.nameUUIDFromBytes( name.getBytes() ), List.of() );
+    }
+
+    private static void await( CountDownLatch latch )
+    {
+        try {
+            latch.await();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
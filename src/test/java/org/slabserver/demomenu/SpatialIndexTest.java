@@ -0,0 +1,111 @@
+package org.slabserver.demomenu;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Query and incremental-maintenance tests for SpatialIndex.
+ */
+public class SpatialIndexTest
+    extends TestCase
+{
+    private static final UUID ALICE = UUID.nameUUIDFromBytes( "Alice".getBytes() );
+
+    public SpatialIndexTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( SpatialIndexTest.class );
+    }
+
+    public void testMatchesBruteForceScan()
+    {
+        SnapshotIndex source = new SnapshotIndex( randomPlayers( 200, 1L ) );
+        SpatialIndex index = new SpatialIndex();
+        index.attach( source );
+
+        Random rnd = new Random( 2L );
+        for ( int i = 0; i < 200; i++ ) {
+            SpatialIndex.Query q = new SpatialIndex.Query( "survival", "overworld",
+                rnd.nextInt( 1000 ) - 500, 64, rnd.nextInt( 1000 ) - 500, 1 + rnd.nextInt( 200 ), 16 );
+
+            SpatialIndex.Result result = index.near( q, Integer.MAX_VALUE );
+
+            assertEquals( bruteForce( source.current(), q ), result.matched() );
+            for ( int h = 1; h < result.hits().size(); h++ ) {
+                assertTrue( result.hits().get( h - 1 ).distance() <= result.hits().get( h ).distance() );
+            }
+            assertTrue( result.examined() < index.size() );
+        }
+    }
+
+    public void testFollowsNewSnapshots()
+    {
+        SnapshotIndex source = new SnapshotIndex( List.of( new DemoData.DemoPlayer( "Alice", ALICE, List.of() ) ) );
+        SpatialIndex index = new SpatialIndex();
+        index.attach( source );
+        SpatialIndex.Query q = new SpatialIndex.Query( "survival", "overworld", 0, 64, 0, 8, 4 );
+
+        assertEquals( 0, index.near( q, 10 ).matched() );
+
+        source.addSnapshot( ALICE, TestSnapshots.builder( 1 ).at( 3, 66, -4 ).build() );
+        source.addSnapshot( ALICE, TestSnapshots.builder( 2 ).at( 3, 90, -4 ).build() );                       // above the height band
+        source.addSnapshot( ALICE, TestSnapshots.builder( 3 ).world( "the_nether" ).at( 3, 66, -4 ).build() ); // other world
+
+        SpatialIndex.Result result = index.near( q, 10 );
+        assertEquals( 1, result.matched() );
+        assertEquals( "Alice", result.hits().get( 0 ).entry().playerName() );
+        assertEquals( 1, result.hits().get( 0 ).entry().snapshot().id() );
+    }
+
+    public void testReattachDoesNotDuplicate()
+    {
+        SnapshotIndex source = new SnapshotIndex( randomPlayers( 20, 3L ) );
+        SpatialIndex index = new SpatialIndex();
+        index.attach( source );
+        int seeded = index.size();
+
+        index.detach( source );
+        index.attach( source );
+
+        assertEquals( seeded, index.size() );
+    }
+
+    // ─── Fixtures ──────────────────────────────────────────────────────────
+
+    private static int bruteForce( SnapshotIndex.Epoch epoch, SpatialIndex.Query q )
+    {
+        int n = 0;
+        for ( DemoData.DemoPlayer p : epoch.players() ) {
+            for ( DemoData.DemoSnapshot s : p.snapshots() ) {
+                if ( !s.serverName().equals( q.server() ) || !s.worldName().equals( q.world() ) ) continue;
+                long dx = s.x() - q.x(), dz = s.z() - q.z();
+                if ( dx * dx + dz * dz <= (long) q.radius() * q.radius()
+                    && Math.abs( s.y() - q.y() ) <= q.verticalRange() ) n++;
+            }
+        }
+        return n;
+    }
+
+    private static List<DemoData.DemoPlayer> randomPlayers( int count, long seed )
+    {
+        Random rnd = new Random( seed );
+        String[] worlds = { "overworld", "the_nether" };
+        return IntStream.range( 0, count ).mapToObj( i -> {
+            List<DemoData.DemoSnapshot> snaps = IntStream.range( 0, 10 )
+                .mapToObj( j -> TestSnapshots.builder( i * 10 + j ).world( worlds[rnd.nextInt( 2 )] )
+                    .at( rnd.nextInt( 2000 ) - 1000, 40 + rnd.nextInt( 48 ), rnd.nextInt( 2000 ) - 1000 ).build() )
+                .toList();
+            return new DemoData.DemoPlayer( "P" + i, UUID.nameUUIDFromBytes( ( "P" + i ).getBytes() ), snaps );
+        } ).toList();
+    }
+}
@@ -0,0 +1,26 @@
+package org.slabserver.demomenu;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Temp-directory cleanup shared by the tests that write files. Call
+ * deleteTree() from a finally block; deleteOnExit() does nothing for a
+ * directory that still has files in it.
+ */
+final class TestFiles
+{
+    private TestFiles()
+    {
+    }
+
+    /** Deletes {@code dir} and everything under it, deepest paths first. */
+    static void deleteTree( Path dir ) throws IOException
+    {
+        try ( Stream<Path> files = Files.walk( dir ) ) {
+            files.sorted( ( a, b ) -> b.compareTo( a ) ).forEach( p -> p.toFile().delete() );
+        }
+    }
+}
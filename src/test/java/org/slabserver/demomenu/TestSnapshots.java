@@ -0,0 +1,66 @@
+package org.slabserver.demomenu;
+
+/**
+ * Shared DemoSnapshot fixture. Every field has a plain default; a test
+ * overrides only the ones it is about:
+ *
+ *   TestSnapshots.of( 1 )
+ *   TestSnapshots.builder( 2 ).world( "the_nether" ).at( 3, 66, -4 ).build()
+ */
+final class TestSnapshots
+{
+    static final long BASE_EPOCH_SECOND = 1_700_000_000L;
+
+    private TestSnapshots()
+    {
+    }
+
+    /** Snapshot with every default; saved {@code id} seconds after BASE_EPOCH_SECOND. */
+    static DemoData.DemoSnapshot of( int id )
+    {
+        return builder( id ).build();
+    }
+
+    static Builder builder( int id )
+    {
+        return new Builder( id );
+    }
+
+    static final class Builder
+    {
+        private final int id;
+        private String server          = "survival";
+        private String world           = "overworld";
+        private int    x, y = 64, z;
+        private double health          = 20.0;
+        private int    food            = 20;
+        private int    xpLevel         = 5;
+        private int    xpPercent       = 50;
+        private String gamemode        = "SURVIVAL";
+        private String vehicle         = "none";
+        private int    inventoryCount  = 3;
+        private int    enderChestCount = 0;
+        private long   epochSecond;
+
+        private Builder( int id )
+        {
+            this.id          = id;
+            this.epochSecond = BASE_EPOCH_SECOND + id;
+        }
+
+        Builder server( String server )     { this.server = server; return this; }
+        Builder world( String world )       { this.world = world; return this; }
+        Builder at( int x, int y, int z )   { this.x = x; this.y = y; this.z = z; return this; }
+        Builder health( double health )     { this.health = health; return this; }
+        Builder food( int food )            { this.food = food; return this; }
+        Builder xpLevel( int xpLevel )      { this.xpLevel = xpLevel; return this; }
+        Builder gamemode( String gamemode ) { this.gamemode = gamemode; return this; }
+        Builder savedAt( long epochSecond ) { this.epochSecond = epochSecond; return this; }
+
+        DemoData.DemoSnapshot build()
+        {
+            return new DemoData.DemoSnapshot( id, server, world, x, y, z, health, food, xpLevel, xpPercent,
+                gamemode, vehicle, inventoryCount, enderChestCount, null, null, epochSecond );
+        }
+    }
+}